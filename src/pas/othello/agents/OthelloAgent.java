@@ -6,6 +6,11 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 // JAVA PROJECT IMPORTS
 import edu.bu.pas.othello.agents.TimedTreeSearchAgent;
@@ -15,8 +20,12 @@ import edu.bu.pas.othello.game.PlayerType;
 import edu.bu.pas.othello.traversal.Node;
 import edu.bu.pas.othello.utils.Coordinate;
 
+import src.pas.othello.bitboard.Bitboard;
 import src.pas.othello.ordering.MoveOrderer;
 import src.pas.othello.heuristics.Heuristics;
+import src.pas.othello.search.MoveTimer;
+import src.pas.othello.search.TranspositionTable;
+import src.pas.othello.search.Zobrist;
 
 public class OthelloAgent extends TimedTreeSearchAgent {
 
@@ -99,7 +108,22 @@ public class OthelloAgent extends TimedTreeSearchAgent {
     }
 
     
+    private static final int MAX_PLY = 128; // at most 60 moves, each after at most one pass
+    private static final long CLOCK_CHECK_MASK = (1L << 12) - 1; // look at the clock every 4096 nodes
+    private static final int TABLE_BITS = 19; // 2^19 buckets of two entries, 16 MB
+    private static final int MOBILITY_ORDER_DEPTH = 2; // order by the opponent's replies only this far from the leaves
+    private static final int HELPER_ORDER_NOISE = 16; // jitter in the helpers' move scores, see MoveOrderer
+
     private final Random random;
+    private final MoveTimer timer = new MoveTimer();
+    private final TranspositionTable table = new TranspositionTable(TABLE_BITS); // kept across moves, shared by all threads
+    private int maxSearchDepth = MAX_PLY;
+    private int searchThreads = 1; // Lazy SMP is opt-in: two agents in one process would share the cores
+
+    // Lazy SMP: searchers[0] runs on the calling thread, the rest on helperPool
+    private Searcher[] searchers = { new Searcher(0) };
+    private ExecutorService helperPool = null;
+    private volatile boolean helpersStop = false; // set once the main searcher has its move
 
     public OthelloAgent(final PlayerType myPlayerType,
                         final long maxMoveThinkingTimeInMS) {
@@ -109,6 +133,58 @@ public class OthelloAgent extends TimedTreeSearchAgent {
 
     public final Random getRandom() { return this.random; }
 
+    /** Positions visited by the last treeSearch call, over all search threads. */
+    public final long getNodesSearched() {
+        long nodes = 0;
+        for (Searcher s : this.searchers) {
+            nodes += s.nodesSearched;
+        }
+        return nodes;
+    }
+
+    /** Alpha-beta cutoffs caused by a searched move in the last treeSearch call, over all search threads. */
+    public final long getCutoffs() {
+        long cutoffs = 0;
+        for (Searcher s : this.searchers) {
+            cutoffs += s.cutoffs;
+        }
+        return cutoffs;
+    }
+
+    /** How many of getCutoffs() came from the first move tried: the move ordering's hit rate. */
+    public final long getFirstMoveCutoffs() {
+        long cutoffs = 0;
+        for (Searcher s : this.searchers) {
+            cutoffs += s.firstMoveCutoffs;
+        }
+        return cutoffs;
+    }
+
+    /** Positions the last treeSearch call settled from a transposition table entry alone. */
+    public final long getTableCutoffs() {
+        long cutoffs = 0;
+        for (Searcher s : this.searchers) {
+            cutoffs += s.tableCutoffs;
+        }
+        return cutoffs;
+    }
+
+    public final TranspositionTable getTranspositionTable() { return this.table; }
+
+    /** Deepest iteration the last treeSearch call completed (on the main thread, whose move is played). */
+    public final int getCompletedDepth() { return this.searchers[0].completedDepth; }
+
+    /** Caps iterative deepening at depth plies (it otherwise runs until the time budget says stop). */
+    public void setMaxSearchDepth(int depth) { this.maxSearchDepth = Math.max(1, Math.min(MAX_PLY, depth)); }
+
+    public final int getSearchThreads() { return this.searchThreads; }
+
+    /**
+     * Threads searching each move: the calling thread plus threads - 1 Lazy SMP helpers. The
+     * default, 1, runs no helpers; raise it only when this agent has the machine to itself.
+     */
+    public void setSearchThreads(int threads) { this.searchThreads = Math.max(1, threads); }
+
     @Override
     public OthelloNode makeRootNode(final GameView game) {
         return new OthelloNode(this.getMyPlayerType(), game, 0);
@@ -118,95 +194,368 @@ public class OthelloAgent extends TimedTreeSearchAgent {
     public Node treeSearch(Node n)
     {
         // The main treeSearch method is responsible for finding the *best child* of the root
-        // and returning that child node.
-        
-        int maxSearchDepth = 2; // Set a more reasonable depth
-        double alpha = Double.NEGATIVE_INFINITY;
-        double beta = Double.POSITIVE_INFINITY;
-
-        Node bestMoveNode = null;
-        double maxUtility = Double.NEGATIVE_INFINITY;
+        // and returning that child node. The search itself runs on bitboards; the root is
+        // converted once and only the chosen child is turned back into a GameView.
+        this.timer.start(this.getMaxThinkingTimeInMS());
+        this.table.newSearch();
+        this.ensureSearchers();
+        for (Searcher s : this.searchers) {
+            s.reset();
+        }
+        Searcher main = this.searchers[0];
 
-        // The root node is always a maximizing player for our agent
-        // We manually loop through the root's children
-        List<Node> children = MoveOrderer.orderChildren(n.getChildren());
+        // The root is always a maximizing node for our agent
+        Bitboard root = Bitboard.fromView(n.getGameView());
+        long maxDiscs = root.get(n.getMaxPlayerType());
+        long minDiscs = root.get(n.getMaxPlayerType() == PlayerType.BLACK ? PlayerType.WHITE : PlayerType.BLACK);
 
-        if (children.isEmpty()) {
+        int[] moves = new int[Bitboard.NUM_SQUARES];
+        int numMoves = Bitboard.toSquares(Bitboard.legalMoves(maxDiscs, minDiscs), moves);
+        if (numMoves == 0) {
             // This can happen if we have no legal moves at the root
             n.setLastMove(null); // Set the move to null
             return n; // Return the root node itself with a null move [cite: 107]
         }
 
-        for (Node child : children) {
-            // Call the recursive helper on each child
-            // The child is a minimizer node, so maximizingPlayer=false
-            double childUtility = alphaBetaPruning(child, maxSearchDepth - 1, alpha, beta, false);
+        // The position was usually searched two plies deep last move: start from its best reply
+        long rootHash = Zobrist.hash(maxDiscs, minDiscs, true);
+        long entry = this.table.probe(rootHash);
+        int ttMove = entry != TranspositionTable.MISS ? TranspositionTable.getMove(entry) : TranspositionTable.NO_MOVE;
+        main.orderer.orderMoves(moves, numMoves, maxDiscs, minDiscs, ttMove, 0, true, true);
+
+        // Lazy SMP: helpers run their own iterative deepening on the same root, half of them a
+        // ply ahead and all with their own random move order, so they fill the shared table
+        // with entries the main search then cuts off on. Only the main search's move is played.
+        this.helpersStop = false;
+        Future<?>[] helpers = new Future<?>[this.searchers.length - 1];
+        for (int i = 1; i < this.searchers.length; i++) {
+            Searcher helper = this.searchers[i];
+            int firstDepth = 1 + (i & 1);
+            helpers[i - 1] = this.helperPool.submit(() -> helper.iterate(maxDiscs, minDiscs, rootHash, moves, numMoves, firstDepth));
+        }
+        main.iterate(maxDiscs, minDiscs, rootHash, moves, numMoves, 1);
+        this.helpersStop = true;
+        this.awaitHelpers(helpers);
 
-            if (childUtility > maxUtility) {
-                maxUtility = childUtility;
-                bestMoveNode = child;
+        // Return the child node that leads to the best utility
+        Node best = makeChildNode(n, Bitboard.coordinate(main.bestMove));
+        best.setUtilityValue(main.bestUtility);
+        return best;
+    }
+
+    // One Searcher per search thread, and a pool for the helpers when there is more than one
+    private void ensureSearchers() {
+        if (this.searchers.length == this.searchThreads) {
+            return;
+        }
+        if (this.helperPool != null) {
+            this.helperPool.shutdown();
+            this.helperPool = null;
+        }
+        this.searchers = new Searcher[this.searchThreads];
+        for (int i = 0; i < this.searchThreads; i++) {
+            this.searchers[i] = new Searcher(i);
+        }
+        if (this.searchThreads > 1) {
+            AtomicInteger threadId = new AtomicInteger(1);
+            this.helperPool = Executors.newFixedThreadPool(this.searchThreads - 1, r -> {
+                Thread t = new Thread(r, "othello-smp-" + threadId.getAndIncrement());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    // Helpers notice helpersStop within CLOCK_CHECK_MASK nodes, so this wait is short. It runs to
+    // completion even if interrupted, so no helper is still writing when the next move starts.
+    private void awaitHelpers(Future<?>[] helpers) {
+        boolean interrupted = false;
+        for (Future<?> helper : helpers) {
+            while (true) {
+                try {
+                    helper.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    break; // a helper only warms the table; the main search's move stands
+                }
             }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
-            // Update alpha for the root
-            alpha = Math.max(alpha, maxUtility);
+    private static void moveToFront(int[] moves, int numMoves, int move) {
+        for (int i = 0; i < numMoves; i++) {
+            if (moves[i] == move) {
+                System.arraycopy(moves, 0, moves, 1, i);
+                moves[0] = move;
+                return;
+            }
         }
+    }
 
-        // Return the child node that leads to the best utility
-        return bestMoveNode;
+    /**
+     * Recursive helper for alpha-beta pruning on bitboards, run by the main searcher; see
+     * Searcher.alphaBetaPruning.
+     */
+    public double alphaBetaPruning(long maxDiscs, long minDiscs, long hash, int depth, int ply,
+                                   double alpha, double beta, boolean maximizingPlayer) {
+        return this.searchers[0].alphaBetaPruning(maxDiscs, minDiscs, hash, depth, ply, alpha, beta, maximizingPlayer);
     }
 
-    
     /**
-     * Recursive helper for alpha-beta pruning.
-     * This method returns the *utility value* (as a double) of the given node.
+     * One search thread's iterative deepening: its own move buffers and counters over the
+     * agent's shared timer and transposition table. Searcher 0 is the main search, the one
+     * whose move is played and whose timing decides when to stop; the others are Lazy SMP
+     * helpers that keep deepening until the main search is done.
      */
-    public double alphaBetaPruning(Node node, int depth, double alpha, double beta, boolean maximizingPlayer) {
-        // Terminal case: depth limit reached or game is over
-        if (depth == 0 || node.isTerminal()) {
-            double utility;
-            if (node.isTerminal()) {
-                utility = node.getTerminalUtility();
-            } else {
-                // We are at the depth limit, use the heuristic [cite: 76]
-                utility = Heuristics.calculateHeuristicValue(node);
-            }
-            node.setUtilityValue(utility); // Store the utility
-            return utility;
+    private final class Searcher {
+
+        private final int id;
+        private final int[][] moveBuffers = new int[MAX_PLY + 1][Bitboard.NUM_SQUARES]; // legal moves per ply
+        private final MoveOrderer orderer;
+
+        // State of the current treeSearch call
+        private long nodesSearched = 0;
+        private int completedDepth = 0;
+        private int bestMove = -1;
+        private double bestUtility = Double.NEGATIVE_INFINITY;
+        private int rootBestMove = -1;
+        private boolean reachedDepthLimit = false; // some leaf of this iteration was cut off by the depth
+        private boolean searchAborted = false;     // the deadline passed (or the main search finished)
+        private long cutoffs = 0;
+        private long firstMoveCutoffs = 0;
+        private long tableCutoffs = 0;
+
+        private Searcher(int id) {
+            this.id = id;
+            this.orderer = new MoveOrderer(MAX_PLY, id == 0 ? 0 : HELPER_ORDER_NOISE);
+        }
+
+        private void reset() {
+            this.nodesSearched = 0;
+            this.completedDepth = 0;
+            this.searchAborted = false;
+            this.cutoffs = 0;
+            this.firstMoveCutoffs = 0;
+            this.tableCutoffs = 0;
+            this.orderer.newSearch();
         }
 
-        // Recursive case
-        if (maximizingPlayer) {
-            double maxValue = Double.NEGATIVE_INFINITY;
-            List<Node> children = MoveOrderer.orderChildren(node.getChildren());
+        // Deepens from firstDepth; the last completed iteration is left in bestMove/bestUtility
+        private void iterate(long maxDiscs, long minDiscs, long hash, int[] rootMoves, int numMoves, int firstDepth) {
+            int[] moves = this.moveBuffers[0];
+            System.arraycopy(rootMoves, 0, moves, 0, numMoves);
+            if (this.id != 0) {
+                MoveOrderer.shuffle(moves, numMoves);
+            }
+
+            // Iterative deepening: one ply deeper per iteration while the timer expects it to fit.
+            // An iteration cut off by the deadline is thrown away; we play the last completed one.
+            this.bestMove = moves[0];
+            this.bestUtility = Double.NEGATIVE_INFINITY;
+            for (int depth = firstDepth; depth <= maxSearchDepth; depth++) {
+                long iterationStart = System.nanoTime();
+                this.reachedDepthLimit = false;
+                double utility = this.searchRoot(maxDiscs, minDiscs, hash, moves, numMoves, depth);
+                if (this.searchAborted) {
+                    break;
+                }
+                this.bestMove = this.rootBestMove;
+                this.bestUtility = utility;
+                this.completedDepth = depth;
 
-            for (Node child : children) {
-                double value = alphaBetaPruning(child, depth - 1, alpha, beta, false); // Recursive call
-                maxValue = Math.max(maxValue, value);
-                alpha = Math.max(alpha, maxValue);
-                if (beta <= alpha) { // Pruning
+                // Nothing was cut off by the depth limit: searching deeper gives the same answer
+                if (!this.reachedDepthLimit) {
                     break;
                 }
+                if (this.id == 0) {
+                    timer.iterationDone(System.nanoTime() - iterationStart);
+                    if (!timer.canFitNextIteration()) {
+                        break;
+                    }
+                }
+                moveToFront(moves, numMoves, this.bestMove); // the previous best move is searched first
             }
-            node.setUtilityValue(maxValue);
-            return maxValue;
+        }
 
-        } else { // Minimizing player
-            double minValue = Double.POSITIVE_INFINITY;
-            List<Node> children = MoveOrderer.orderChildren(node.getChildren());
+        // One fixed-depth alpha-beta over the root moves; leaves the best one in rootBestMove
+        private double searchRoot(long maxDiscs, long minDiscs, long hash, int[] moves, int numMoves, int depth) {
+            double alpha = Double.NEGATIVE_INFINITY;
+            double beta = Double.POSITIVE_INFINITY;
+            double maxUtility = Double.NEGATIVE_INFINITY;
+            this.rootBestMove = moves[0];
 
-            for (Node child : children) {
-                double value = alphaBetaPruning(child, depth - 1, alpha, beta, true); 
-                minValue = Math.min(minValue, value);
-                beta = Math.min(beta, minValue);
-                if (beta <= alpha) { // Pruning
-                    break;
+            for (int i = 0; i < numMoves && !this.searchAborted; i++) {
+                int sq = moves[i];
+                long flipped = Bitboard.flips(maxDiscs, minDiscs, sq);
+
+                // The child is a minimizer node, so maximizingPlayer=false
+                double childUtility = this.alphaBetaPruning(maxDiscs | flipped | (1L << sq), minDiscs & ~flipped,
+                                                            Zobrist.afterMove(hash, sq, flipped, true),
+                                                            depth - 1, 1, alpha, beta, false);
+
+                if (childUtility > maxUtility) {
+                    maxUtility = childUtility;
+                    this.rootBestMove = sq;
+                }
+
+                // Update alpha for the root
+                alpha = Math.max(alpha, maxUtility);
+            }
+            return maxUtility;
+        }
+
+        /**
+         * Recursive helper for alpha-beta pruning on bitboards: maxDiscs are our discs, minDiscs
+         * the opponent's, and maximizingPlayer says whose turn it is. Returns the utility of the
+         * position for us. A side without a legal move passes; the game ends when neither has one.
+         *
+         * hash is the position's Zobrist key (see Zobrist), used to probe the transposition table
+         * for a cutoff or a move to try first, and to store the result. A subtree that never hit
+         * the depth limit is stored as solved, so any later search may cut off on it.
+         */
+        private double alphaBetaPruning(long maxDiscs, long minDiscs, long hash, int depth, int ply,
+                                        double alpha, double beta, boolean maximizingPlayer) {
+            // Out of time (or a helper whose main search is done): unwind without looking further,
+            // the iteration is discarded
+            if ((++this.nodesSearched & CLOCK_CHECK_MASK) == 0L
+                && (timer.isExpired() || (this.id != 0 && helpersStop))) {
+                this.searchAborted = true;
+            }
+            if (this.searchAborted) {
+                return 0.0;
+            }
+            long toMove = maximizingPlayer ? maxDiscs : minDiscs;
+            long waiting = maximizingPlayer ? minDiscs : maxDiscs;
+            long legal = Bitboard.legalMoves(toMove, waiting);
+
+            // Terminal case: game is over or depth limit reached
+            if (legal == 0L && Bitboard.legalMoves(waiting, toMove) == 0L) {
+                return getTerminalUtility(maxDiscs, minDiscs);
+            }
+            if (depth == 0) {
+                // We are at the depth limit, use the heuristic [cite: 76]
+                this.reachedDepthLimit = true;
+                return Heuristics.calculateHeuristicValue(maxDiscs, minDiscs);
+            }
+
+            // Transposition table: a deep enough entry settles the node if its bound alone decides
+            // it for this window. (Narrowing the window instead would let a fail-low below a stored
+            // lower bound come back to the parent looking exact.)
+            double alphaOrig = alpha;
+            double betaOrig = beta;
+            int ttMove = TranspositionTable.NO_MOVE;
+            long entry = table.probe(hash);
+            if (entry != TranspositionTable.MISS) {
+                ttMove = TranspositionTable.getMove(entry);
+                int entryDepth = TranspositionTable.getDepth(entry);
+                if (entryDepth >= depth) {
+                    double score = TranspositionTable.getScore(entry);
+                    int bound = TranspositionTable.getBound(entry);
+                    if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && score >= beta)
+                        || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                        this.reachedDepthLimit |= entryDepth < TranspositionTable.SOLVED_DEPTH;
+                        this.tableCutoffs++;
+                        return score;
+                    }
+                }
+            }
+
+            boolean outerReachedLimit = this.reachedDepthLimit;
+            this.reachedDepthLimit = false;
+            double bestValue;
+            int bestMove = TranspositionTable.NO_MOVE;
+
+            if (legal == 0L) {
+                // pass
+                bestValue = this.alphaBetaPruning(maxDiscs, minDiscs, Zobrist.afterPass(hash), depth - 1, ply + 1,
+                                                  alpha, beta, !maximizingPlayer);
+            } else {
+                int[] moves = this.moveBuffers[ply];
+                int numMoves = Bitboard.toSquares(legal, moves);
+                this.orderer.orderMoves(moves, numMoves, toMove, waiting, ttMove, ply, maximizingPlayer, depth >= MOBILITY_ORDER_DEPTH);
+
+                // Recursive case
+                if (maximizingPlayer) {
+                    bestValue = Double.NEGATIVE_INFINITY;
+                    for (int i = 0; i < numMoves; i++) {
+                        long flipped = Bitboard.flips(maxDiscs, minDiscs, moves[i]);
+                        double value = this.alphaBetaPruning(maxDiscs | flipped | (1L << moves[i]), minDiscs & ~flipped,
+                                                             Zobrist.afterMove(hash, moves[i], flipped, true),
+                                                             depth - 1, ply + 1, alpha, beta, false); // Recursive call
+                        if (value > bestValue) {
+                            bestValue = value;
+                            bestMove = moves[i];
+                        }
+                        alpha = Math.max(alpha, bestValue);
+                        if (beta <= alpha) { // Pruning
+                            this.recordCutoff(moves[i], i, depth, ply, true);
+                            break;
+                        }
+                    }
+
+                } else { // Minimizing player
+                    bestValue = Double.POSITIVE_INFINITY;
+                    for (int i = 0; i < numMoves; i++) {
+                        long flipped = Bitboard.flips(minDiscs, maxDiscs, moves[i]);
+                        double value = this.alphaBetaPruning(maxDiscs & ~flipped, minDiscs | flipped | (1L << moves[i]),
+                                                             Zobrist.afterMove(hash, moves[i], flipped, false),
+                                                             depth - 1, ply + 1, alpha, beta, true);
+                        if (value < bestValue) {
+                            bestValue = value;
+                            bestMove = moves[i];
+                        }
+                        beta = Math.min(beta, bestValue);
+                        if (beta <= alpha) { // Pruning
+                            this.recordCutoff(moves[i], i, depth, ply, false);
+                            break;
+                        }
+                    }
                 }
             }
-            node.setUtilityValue(minValue);
-            return minValue;
+
+            // An aborted subtree returned placeholder values; don't let them into the table
+            if (!this.searchAborted) {
+                int bound = bestValue <= alphaOrig ? TranspositionTable.UPPER
+                          : bestValue >= betaOrig ? TranspositionTable.LOWER
+                          : TranspositionTable.EXACT;
+                int storedDepth = this.reachedDepthLimit ? depth : TranspositionTable.SOLVED_DEPTH;
+                table.store(hash, storedDepth, bound, bestValue, bestMove);
+            }
+            this.reachedDepthLimit |= outerReachedLimit;
+            return bestValue;
+        }
+
+        // The index-th move tried at this node caused a cutoff
+        private void recordCutoff(int move, int index, int depth, int ply, boolean maximizingPlayer) {
+            this.cutoffs++;
+            if (index == 0) {
+                this.firstMoveCutoffs++;
+            }
+            this.orderer.recordCutoff(move, depth, ply, maximizingPlayer);
         }
     }
 
+    // OthelloNode.getTerminalUtility on bitboards: +c if we have more discs, -c if fewer, 0 for a tie
+    private static double getTerminalUtility(long maxDiscs, long minDiscs) {
+        return 100.0 * Integer.signum(Long.bitCount(maxDiscs) - Long.bitCount(minDiscs));
+    }
+
+    // Plays mv on a copy of the root's game, the way OthelloNode.getChildren does
+    private Node makeChildNode(Node parent, Coordinate mv) {
+        Game g = new Game(parent.getGameView());
+        g.applyMove(mv);
+        g.setCurrentPlayerType(parent.getOtherPlayerType());
+        OthelloNode child = new OthelloNode(parent.getMaxPlayerType(), g.getView(), parent.getDepth() + 1);
+        child.setLastMove(mv);
+        return child;
+    }
+
 
     @Override
     public Coordinate chooseCoordinateToPlaceTile(final GameView game) {
@@ -216,5 +565,12 @@ public class OthelloAgent extends TimedTreeSearchAgent {
     }
 
     @Override
-    public void afterGameEnds(final GameView game) {}
+    public void afterGameEnds(final GameView game) {
+        this.table.clear();
+        if (this.helperPool != null) {
+            this.helperPool.shutdownNow(); // don't leave idle helper threads behind per finished game
+            this.helperPool = null;
+        }
+        this.searchers = new Searcher[] { new Searcher(0) }; // next game starts with fresh killers and history
+    }
 }
@@ -0,0 +1,124 @@
+package src.pas.othello.bitboard;
+
+// SYSTEM IMPORTS
+
+// JAVA PROJECT IMPORTS
+import edu.bu.pas.othello.game.Game.GameView;
+import edu.bu.pas.othello.game.PlayerType;
+import edu.bu.pas.othello.utils.Coordinate;
+
+
+/**
+ * An Othello position as two 64-bit boards, one per color, plus the move generation and
+ * flipping the search runs on.
+ *
+ * Square y * 8 + x holds the disc at Coordinate(x, y), i.e. cells[y][x] of a GameView. Every
+ * direction is handled with a Kogge-Stone occluded fill: three shift-and-mask steps extend
+ * runs of opponent discs by 1, 2 and 4 squares, so legal moves and flips take a fixed number
+ * of operations regardless of the position. Shifts that cross the a- or h-file are cut off
+ * by masking the propagator.
+ */
+public class Bitboard
+    extends Object
+{
+
+    public static final int NUM_SQUARES = 64;
+
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = 0x8080808080808080L;
+    public static final long CORNERS = 0x8100000000000081L;
+    public static final long X_SQUARES = 0x0042000000004200L; // diagonal neighbors of the corners
+    public static final long C_SQUARES = 0x4281000000008142L; // edge neighbors of the corners
+
+    // Shift per direction (E, W, S, N, SE, SW, NE, NW) and the squares a shifted disc may land on
+    private static final int[] SHIFTS = {1, -1, 8, -8, 9, 7, -7, -9};
+    private static final long[] WRAP_MASKS = {~FILE_A, ~FILE_H, -1L, -1L, ~FILE_A, ~FILE_H, ~FILE_A, ~FILE_H};
+
+    private final long black;
+    private final long white;
+
+    public Bitboard(final long black,
+                    final long white)
+    {
+        this.black = black;
+        this.white = white;
+    }
+
+    public static Bitboard fromView(final GameView view)
+    {
+        long black = 0L;
+        long white = 0L;
+        PlayerType[][] cells = view.getCells();
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 8; x++) {
+                if (cells[y][x] == PlayerType.BLACK) black |= 1L << (y * 8 + x);
+                else if (cells[y][x] == PlayerType.WHITE) white |= 1L << (y * 8 + x);
+            }
+        }
+        return new Bitboard(black, white);
+    }
+
+    public final long getBlack() { return this.black; }
+    public final long getWhite() { return this.white; }
+
+    /** Discs of the given color. */
+    public final long get(final PlayerType player) { return player == PlayerType.BLACK ? this.black : this.white; }
+
+    public static int square(final Coordinate c) { return c.getYCoordinate() * 8 + c.getXCoordinate(); }
+    public static Coordinate coordinate(final int square) { return new Coordinate(square & 7, square >>> 3); }
+
+    /** Empty squares where player may move: each outflanks at least one run of opponent discs. */
+    public static long legalMoves(final long player, final long opponent)
+    {
+        long empty = ~(player | opponent);
+        long moves = 0L;
+        for (int d = 0; d < SHIFTS.length; d++) {
+            int s = SHIFTS[d];
+            long mask = WRAP_MASKS[d];
+            long run = fill(player, opponent & mask, s) & opponent; // opponent discs in a line from ours
+            moves |= shift(run, s) & mask & empty;
+        }
+        return moves;
+    }
+
+    /** Opponent discs flipped when player moves to square (0 if the move flips nothing). */
+    public static long flips(final long player, final long opponent, final int square)
+    {
+        long move = 1L << square;
+        long flipped = 0L;
+        for (int d = 0; d < SHIFTS.length; d++) {
+            int s = SHIFTS[d];
+            long mask = WRAP_MASKS[d];
+            long run = fill(move, opponent & mask, s) & opponent; // opponent discs in a line from the move
+            if ((shift(run | move, s) & mask & player) != 0L) flipped |= run;
+        }
+        return flipped;
+    }
+
+    /** Writes the squares of bits into squares, lowest first, and returns how many there are. */
+    public static int toSquares(long bits, final int[] squares)
+    {
+        int n = 0;
+        while (bits != 0L) {
+            squares[n++] = Long.numberOfTrailingZeros(bits);
+            bits &= bits - 1;
+        }
+        return n;
+    }
+
+    // Kogge-Stone occluded fill: gen plus every square reachable from it through pro in direction s
+    private static long fill(long gen, long pro, final int s)
+    {
+        gen |= pro & shift(gen, s);
+        pro &= shift(pro, s);
+        gen |= pro & shift(gen, 2 * s);
+        pro &= shift(pro, 2 * s);
+        gen |= pro & shift(gen, 4 * s);
+        return gen;
+    }
+
+    private static long shift(final long b, final int s)
+    {
+        return s > 0 ? b << s : b >>> -s;
+    }
+}
@@ -8,21 +8,14 @@ import edu.bu.pas.othello.traversal.Node;
 import java.util.HashMap;
 import java.util.Map;
 
-public class Heuristics extends Object {
+import src.pas.othello.bitboard.Bitboard;
 
-    // Used for heuristic lookup (using the provided key type)
-    private static Map<Long, Double> cachedHeuristics = new HashMap<>(); 
+public class Heuristics extends Object {
 
+    // Searched positions are cached by OthelloAgent's transposition table (Zobrist-keyed,
+    // fixed size), so the Node form no longer memoizes by node.hashCode()
     public static double calculateHeuristicValue(Node node) {
-        // Use node.hashCode() as the cache key, as in the original code
-        long key = node.hashCode(); 
-        if (cachedHeuristics.containsKey(key)) {
-            return cachedHeuristics.get(key);
-        } else {
-            double value = getHeuristicVal(node);
-            cachedHeuristics.put(key, value);
-            return value;
-        }
+        return getHeuristicVal(node);
     }
 
     // Positional weight graph (kept the same)
@@ -36,6 +29,55 @@ public class Heuristics extends Object {
         {-30, -60,  -5,  -5,  -5,  -5, -60, -30},
         {100, -30,  15,   10,   10,  15, -30, 100}
     };
+    // WEIGHTED_GRAPH as one bitboard per distinct weight, so the positional score is a few popcounts
+    private static final int[] POSITION_WEIGHTS;
+    private static final long[] POSITION_MASKS;
+    static {
+        Map<Integer, Long> masks = new HashMap<>();
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                masks.merge(WEIGHTED_GRAPH[r][c], 1L << (r * 8 + c), (x, y) -> x | y);
+            }
+        }
+        POSITION_WEIGHTS = new int[masks.size()];
+        POSITION_MASKS = new long[masks.size()];
+        int i = 0;
+        for (Map.Entry<Integer, Long> e : masks.entrySet()) {
+            POSITION_WEIGHTS[i] = e.getKey();
+            POSITION_MASKS[i] = e.getValue();
+            i++;
+        }
+    }
+
+    /**
+     * getHeuristicVal on a bitboard position, scored for the player owning mine: the same
+     * mobility, piece, corner and positional terms with the same phase weights.
+     */
+    public static double calculateHeuristicValue(final long mine, final long theirs) {
+        final int myPieceCount = Long.bitCount(mine);
+        final int opponentPieceCount = Long.bitCount(theirs);
+        int positionValue = 0;
+        for (int i = 0; i < POSITION_MASKS.length; i++) {
+            positionValue += POSITION_WEIGHTS[i] * (Long.bitCount(mine & POSITION_MASKS[i]) - Long.bitCount(theirs & POSITION_MASKS[i]));
+        }
+
+        final int totalPieceCount = myPieceCount + opponentPieceCount;
+        final int pieceDifference = myPieceCount - opponentPieceCount;
+        final int cornerDifference = Long.bitCount(mine & Bitboard.CORNERS) - Long.bitCount(theirs & Bitboard.CORNERS);
+        final int frontierDifference = Long.bitCount(Bitboard.legalMoves(mine, theirs))
+                                     - Long.bitCount(Bitboard.legalMoves(theirs, mine));
+
+        double primaryScore;
+        if (totalPieceCount < 20) {
+            primaryScore = (double)(frontierDifference * 8 + cornerDifference * 100);
+        } else if (totalPieceCount <= 50) {
+            primaryScore = (double)(frontierDifference * 6 + pieceDifference * 1 + cornerDifference * 100);
+        } else {
+            primaryScore = (double)(pieceDifference * 100 + cornerDifference * 100);
+        }
+        return primaryScore + ((double)positionValue / 10000.0);
+    }
+
     public static double getHeuristicVal(Node node) {
         final PlayerType myType = node.getCurrentPlayerType();
         final PlayerType opponentType = node.getOtherPlayerType();
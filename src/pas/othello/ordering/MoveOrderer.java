@@ -2,14 +2,59 @@ package src.pas.othello.ordering;
 
 // SYSTEM IMPORTS
 import edu.bu.pas.othello.traversal.Node;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 // JAVA PROJECT IMPORTS
+import src.pas.othello.bitboard.Bitboard;
 
 
+/**
+ * Move ordering for the Othello alpha-beta. Moves are scored in bands and tried best first:
+ *
+ *   1. the transposition table's best move for the position
+ *   2. corners
+ *   3. this ply's killer moves (the last two moves that caused a cutoff at this ply)
+ *   4. the rest by history (cutoffs caused by the square, weighted by depth), ties broken by
+ *      how few moves the opponent is left with
+ *
+ * and X- and C-squares next to an empty corner, which tend to give the corner away, always
+ * go last (after everything but the table move). One instance per search thread: the killer
+ * and history tables are learned from that thread's cutoffs.
+ */
 public class MoveOrderer {
 
+    private static final int TT_MOVE_SCORE = 1 << 30;
+    private static final int CORNER_SCORE = 1 << 29;
+    private static final int KILLER_SCORE = 1 << 28;        // + 1 for the newer killer
+    private static final int BAD_SQUARE_PENALTY = 1 << 29;  // puts a bad square below every good one
+    private static final int MAX_HISTORY = (1 << 20) - 1;   // history << 6 stays below KILLER_SCORE
+    private static final int MOBILITY_BITS = 6;
+    private static final int NO_KILLER = -1;
+
+    // Each corner and its X- and C-squares, for a1, h1, a8, h8
+    private static final long[] CORNER_SQUARES = {1L, 1L << 7, 1L << 56, 1L << 63};
+    private static final long[] CORNER_NEIGHBORS = {0x0000000000000302L, 0x000000000000C040L,
+                                                    0x0203000000000000L, 0x40C0000000000000L};
+
+    private final int[][] killers;                                  // [ply][0 = newest, 1]
+    private final int[][] history = new int[2][Bitboard.NUM_SQUARES]; // [0 = max to move, 1 = min][square]
+    private final int[] scores = new int[Bitboard.NUM_SQUARES];
+    private final int noise;
+
+    /**
+     * @param maxPly deepest ply the search can reach
+     * @param noise  random amount (0 for none) added to the scores of moves below the killers,
+     *               so Lazy SMP helpers don't all search the tree in the same order
+     */
+    public MoveOrderer(int maxPly, int noise) {
+        this.killers = new int[maxPly + 1][2];
+        this.noise = noise;
+        this.newSearch();
+    }
+
     /**
      * Orders the list of child nodes before search expansion.
      * Currently, this implementation simply randomizes the list
@@ -23,4 +68,123 @@ public class MoveOrderer {
         Collections.shuffle(children);
         return children;
     }
+
+    /**
+     * Shuffles the first count squares of moves in place. Lazy SMP helpers use it to start
+     * each root search in their own order.
+     *
+     * @param moves squares of the legal moves (see Bitboard.toSquares)
+     * @param count number of moves in the array
+     */
+    public static void shuffle(int[] moves, int count) {
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = moves[i];
+            moves[i] = moves[j];
+            moves[j] = tmp;
+        }
+    }
+
+    /** X- and C-squares whose corner is still empty. */
+    public static long badSquares(long occupied) {
+        long bad = 0L;
+        for (int c = 0; c < CORNER_SQUARES.length; c++) {
+            if ((occupied & CORNER_SQUARES[c]) == 0L) {
+                bad |= CORNER_NEIGHBORS[c];
+            }
+        }
+        return bad;
+    }
+
+    /** Forgets the killers and halves the history, once per root search. */
+    public void newSearch() {
+        for (int[] plyKillers : this.killers) {
+            Arrays.fill(plyKillers, NO_KILLER);
+        }
+        for (int[] sideHistory : this.history) {
+            for (int sq = 0; sq < sideHistory.length; sq++) {
+                sideHistory[sq] >>= 1;
+            }
+        }
+    }
+
+    /**
+     * Orders the first count squares of moves in place, best first.
+     *
+     * @param moves     squares of the legal moves (see Bitboard.toSquares)
+     * @param count     number of moves in the array
+     * @param toMove    discs of the side to move
+     * @param waiting   discs of the other side
+     * @param ttMove    the transposition table's best move, or any non-square if there is none
+     * @param ply       distance from the root
+     * @param maxToMove whether the maximizing side is to move (history is kept per side)
+     * @param mobility  whether to break history ties by the opponent's replies, which costs
+     *                  a move generation per move (not worth it just above the leaves)
+     */
+    public void orderMoves(int[] moves, int count, long toMove, long waiting, int ttMove, int ply, boolean maxToMove,
+                           boolean mobility) {
+        long bad = badSquares(toMove | waiting);
+        int[] plyKillers = this.killers[ply];
+        int[] sideHistory = this.history[maxToMove ? 0 : 1];
+        ThreadLocalRandom random = this.noise > 0 ? ThreadLocalRandom.current() : null;
+
+        for (int i = 0; i < count; i++) {
+            int sq = moves[i];
+            long bit = 1L << sq;
+            int score;
+            if (sq == ttMove) {
+                score = TT_MOVE_SCORE;
+            } else if ((bit & Bitboard.CORNERS) != 0L) {
+                score = CORNER_SCORE;
+            } else {
+                if (sq == plyKillers[0]) {
+                    score = KILLER_SCORE + 1;
+                } else if (sq == plyKillers[1]) {
+                    score = KILLER_SCORE;
+                } else {
+                    score = Math.min(sideHistory[sq], MAX_HISTORY) << MOBILITY_BITS;
+                    if (mobility) {
+                        // Mobility reduction: the opponent's replies after this move
+                        long flipped = Bitboard.flips(toMove, waiting, sq);
+                        int replies = Long.bitCount(Bitboard.legalMoves(waiting & ~flipped, toMove | flipped | bit));
+                        score += Bitboard.NUM_SQUARES - 1 - replies;
+                    }
+                    if (random != null) {
+                        score += random.nextInt(this.noise + 1);
+                    }
+                }
+                if ((bit & bad) != 0L) {
+                    score -= BAD_SQUARE_PENALTY;
+                }
+            }
+            this.scores[i] = score;
+        }
+
+        // Insertion sort: there are rarely more than 15 moves
+        for (int i = 1; i < count; i++) {
+            int move = moves[i];
+            int score = this.scores[i];
+            int j = i - 1;
+            while (j >= 0 && this.scores[j] < score) {
+                moves[j + 1] = moves[j];
+                this.scores[j + 1] = this.scores[j];
+                j--;
+            }
+            moves[j + 1] = move;
+            this.scores[j + 1] = score;
+        }
+    }
+
+    /** Credits move with a cutoff at ply, found with depth plies left to search. */
+    public void recordCutoff(int move, int depth, int ply, boolean maxToMove) {
+        int[] plyKillers = this.killers[ply];
+        if (plyKillers[0] != move) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+        int[] sideHistory = this.history[maxToMove ? 0 : 1];
+        sideHistory[move] = Math.min(MAX_HISTORY, sideHistory[move] + depth * depth);
+    }
 }
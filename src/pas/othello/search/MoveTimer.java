@@ -0,0 +1,75 @@
+package src.pas.othello.search;
+
+// SYSTEM IMPORTS
+
+// JAVA PROJECT IMPORTS
+
+
+/**
+ * Time control for one move of iterative deepening.
+ *
+ * The deadline is the thinking budget minus a safety margin (TimedAgent stops waiting at the
+ * budget and counts a late move as a timeout). Another iteration is only started if the last
+ * one, grown by the observed ratio between the last two iterations, still fits before the
+ * deadline. The search also polls isExpired() every few thousand nodes and abandons an
+ * iteration that overruns anyway.
+ */
+public class MoveTimer
+    extends Object
+{
+
+    private static final double MARGIN_FRACTION = 0.1;  // of the budget, kept back for the move to get out
+    private static final long MIN_MARGIN_MS = 20L;
+    private static final double DEFAULT_GROWTH = 4.0;   // until two iterations have been timed
+    private static final double MIN_GROWTH = 1.5;
+    private static final double MAX_GROWTH = 10.0;
+
+    private long startNanos = 0L;
+    private long deadlineNanos = 0L;
+    private long lastIterationNanos = 0L;
+    private long previousIterationNanos = 0L;
+    private volatile boolean expired = false;
+
+    /** Starts timing a move that may take at most budgetMs. */
+    public void start(final long budgetMs)
+    {
+        long margin = Math.max(MIN_MARGIN_MS, (long)(budgetMs * MARGIN_FRACTION));
+        this.startNanos = System.nanoTime();
+        this.deadlineNanos = this.startNanos + Math.max(0L, budgetMs - margin) * 1_000_000L;
+        this.lastIterationNanos = 0L;
+        this.previousIterationNanos = 0L;
+        this.expired = false;
+    }
+
+    public final long getElapsedNanos() { return System.nanoTime() - this.startNanos; }
+    public final long getLastIterationNanos() { return this.lastIterationNanos; }
+
+    /** True once the deadline has passed; sticky until the next start(). */
+    public boolean isExpired()
+    {
+        if (!this.expired && System.nanoTime() >= this.deadlineNanos) this.expired = true;
+        return this.expired;
+    }
+
+    /** Records how long the iteration that just completed took. */
+    public void iterationDone(final long nanos)
+    {
+        this.previousIterationNanos = this.lastIterationNanos;
+        this.lastIterationNanos = nanos;
+    }
+
+    /** Predicts whether one more (deeper) iteration finishes before the deadline. */
+    public boolean canFitNextIteration()
+    {
+        long predicted = (long)(this.lastIterationNanos * this.getGrowth());
+        return !this.isExpired() && System.nanoTime() + predicted < this.deadlineNanos;
+    }
+
+    // Time ratio of the last two iterations, i.e. the effective branching factor
+    private double getGrowth()
+    {
+        if (this.previousIterationNanos <= 0L || this.lastIterationNanos <= 0L) return DEFAULT_GROWTH;
+        double growth = (double) this.lastIterationNanos / this.previousIterationNanos;
+        return Math.max(MIN_GROWTH, Math.min(MAX_GROWTH, growth));
+    }
+}
@@ -0,0 +1,121 @@
+package src.pas.othello.search;
+
+// SYSTEM IMPORTS
+
+// JAVA PROJECT IMPORTS
+
+
+/**
+ * Fixed-size transposition table for the Othello alpha-beta, in two preallocated long arrays.
+ *
+ * The table has a power of two of buckets, each holding two entries: a depth-preferred slot
+ * kept until a search at least as deep (or from a newer move) replaces it, and an
+ * always-replace slot for everything else. An entry is the full 64-bit Zobrist hash plus one
+ * packed word (the hash is stored XORed with the word, see below):
+ *
+ *   bits  0-31  score, fixed point in units of 1/SCORE_SCALE (the heuristic's resolution)
+ *   bits 32-39  depth searched below the position, or SOLVED_DEPTH if the search never hit
+ *               its depth limit (the score then holds at any depth)
+ *   bits 40-41  bound: EXACT, LOWER (score is at least this) or UPPER (at most this)
+ *   bits 42-48  best move square, or NO_MOVE
+ *   bits 49-56  age (search number), for replacing entries left by earlier moves
+ *
+ * probe returns the packed word, or MISS; the static get* methods unpack it.
+ *
+ * Lazy SMP threads share one table without locks. Each slot's key is stored XORed with its
+ * data, so an entry torn by two threads writing the same slot at once fails the key check
+ * and reads as a miss instead of pairing one position's key with another's score. The
+ * probe/hit counters are plain fields and only approximate while several threads search.
+ */
+public class TranspositionTable
+    extends Object
+{
+
+    public static final int EXACT = 0;
+    public static final int LOWER = 1;
+    public static final int UPPER = 2;
+    public static final int NO_MOVE = 127;
+    public static final int SOLVED_DEPTH = 0xFF;
+    public static final long MISS = -1L; // bits 57-63 of a packed word are always 0
+
+    public static final double SCORE_SCALE = 10000.0;
+
+    private final int bucketMask;
+    private final long[] keys;
+    private final long[] data;
+    private int age = 0;
+
+    private long probes = 0;
+    private long hits = 0;
+
+    /** A table of 2^log2Buckets buckets (32 bytes each). */
+    public TranspositionTable(final int log2Buckets)
+    {
+        int buckets = 1 << log2Buckets;
+        this.bucketMask = buckets - 1;
+        this.keys = new long[2 * buckets];
+        this.data = new long[2 * buckets];
+        this.clear();
+    }
+
+    public final int getNumEntries() { return this.keys.length; }
+    public final long getProbes() { return this.probes; }
+    public final long getHits() { return this.hits; }
+
+    /** Empties the table. */
+    public void clear()
+    {
+        java.util.Arrays.fill(this.data, MISS);
+        java.util.Arrays.fill(this.keys, 0L);
+        this.age = 0;
+    }
+
+    /** Call once per root search: older entries become the first to be replaced. */
+    public void newSearch() { this.age = (this.age + 1) & 0xFF; }
+
+    public long probe(final long hash)
+    {
+        this.probes++;
+        int i = this.index(hash);
+        long d0 = this.data[i];
+        if ((this.keys[i] ^ d0) == hash && d0 != MISS) { this.hits++; return d0; }
+        long d1 = this.data[i + 1];
+        if ((this.keys[i + 1] ^ d1) == hash && d1 != MISS) { this.hits++; return d1; }
+        return MISS;
+    }
+
+    public void store(final long hash, final int depth, final int bound, final double score, final int move)
+    {
+        long packed = pack(depth, bound, score, move, this.age);
+        int i = this.index(hash);
+        long old = this.data[i];
+        if (old == MISS || (this.keys[i] ^ old) == hash || depth >= getDepth(old) || getAge(old) != this.age) {
+            this.keys[i] = hash ^ packed;
+            this.data[i] = packed;
+        } else {
+            this.keys[i + 1] = hash ^ packed;
+            this.data[i + 1] = packed;
+        }
+    }
+
+    public static double getScore(final long packed) { return (int) packed / SCORE_SCALE; }
+    public static int getDepth(final long packed) { return (int) (packed >>> 32) & 0xFF; }
+    public static int getBound(final long packed) { return (int) (packed >>> 40) & 0x3; }
+    public static int getMove(final long packed) { return (int) (packed >>> 42) & 0x7F; }
+    private static int getAge(final long packed) { return (int) (packed >>> 49) & 0xFF; }
+
+    private static long pack(final int depth, final int bound, final double score, final int move, final int age)
+    {
+        long fixed = Math.round(score * SCORE_SCALE) & 0xFFFFFFFFL;
+        return fixed
+            | ((long) Math.min(depth, SOLVED_DEPTH) << 32)
+            | ((long) bound << 40)
+            | ((long) (move & 0x7F) << 42)
+            | ((long) age << 49);
+    }
+
+    private int index(final long hash)
+    {
+        return (int) (hash & this.bucketMask) << 1;
+    }
+}
@@ -0,0 +1,53 @@
+package src.pas.othello.search;
+
+// SYSTEM IMPORTS
+import java.util.SplittableRandom;
+
+// JAVA PROJECT IMPORTS
+
+
+/**
+ * Zobrist keys for bitboard positions seen from the searching agent: one random key per
+ * square for our discs, one for the opponent's, and one for "opponent to move".
+ *
+ * A move changes the hash by the moved-to square plus one precomputed XOR per flipped disc,
+ * so the search updates it incrementally instead of rehashing both boards.
+ */
+public class Zobrist
+    extends Object
+{
+
+    private static final long[] MAX_KEYS = new long[64];
+    private static final long[] MIN_KEYS = new long[64];
+    private static final long[] FLIP_KEYS = new long[64];  // MAX_KEYS ^ MIN_KEYS: a disc changing color
+    public static final long MIN_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED0DDL); // fixed, so hashes are reproducible
+        for (int sq = 0; sq < 64; sq++) {
+            MAX_KEYS[sq] = random.nextLong();
+            MIN_KEYS[sq] = random.nextLong();
+            FLIP_KEYS[sq] = MAX_KEYS[sq] ^ MIN_KEYS[sq];
+        }
+        MIN_TO_MOVE = random.nextLong();
+    }
+
+    public static long hash(final long maxDiscs, final long minDiscs, final boolean maxToMove)
+    {
+        long h = maxToMove ? 0L : MIN_TO_MOVE;
+        for (long b = maxDiscs; b != 0L; b &= b - 1) h ^= MAX_KEYS[Long.numberOfTrailingZeros(b)];
+        for (long b = minDiscs; b != 0L; b &= b - 1) h ^= MIN_KEYS[Long.numberOfTrailingZeros(b)];
+        return h;
+    }
+
+    /** Hash after the side to move plays square and turns the discs in flipped. */
+    public static long afterMove(long hash, final int square, long flipped, final boolean maxMoved)
+    {
+        hash ^= (maxMoved ? MAX_KEYS[square] : MIN_KEYS[square]) ^ MIN_TO_MOVE;
+        for (; flipped != 0L; flipped &= flipped - 1) hash ^= FLIP_KEYS[Long.numberOfTrailingZeros(flipped)];
+        return hash;
+    }
+
+    /** Hash after the side to move passes. */
+    public static long afterPass(final long hash) { return hash ^ MIN_TO_MOVE; }
+}
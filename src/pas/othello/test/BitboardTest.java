@@ -0,0 +1,77 @@
+package src.pas.othello.test;
+
+// SYSTEM IMPORTS
+import edu.bu.pas.othello.game.Game;
+import edu.bu.pas.othello.game.Game.GameView;
+import edu.bu.pas.othello.game.PlayerType;
+import edu.bu.pas.othello.traversal.Node;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+// JAVA PROJECT IMPORTS
+import src.pas.othello.agents.OthelloAgent.OthelloNode;
+import src.pas.othello.bitboard.Bitboard;
+
+
+/**
+ * Bitboard move generation (Kogge-Stone legalMoves and flips) against OthelloNode.getChildren,
+ * which plays every move through the game engine, over random games.
+ *
+ * The Othello tests are JUnit 4 classes listed in othello-test.srcs:
+ *
+ * javac -d test -cp "lib/*" $(cat othello.srcs othello-test.srcs)
+ * java -cp "lib/*:test" org.junit.runner.JUnitCore src.pas.othello.test.BitboardTest
+ */
+public class BitboardTest {
+
+    private static final int GAMES = 40;
+
+    @Test
+    public void movesAndFlipsMatchTheGameEngine() {
+        Random random = new Random(1);
+        for (int gameNumber = 0; gameNumber < GAMES; gameNumber++) {
+            Game game = new Game(new Random(gameNumber), 1000);
+            game.calculateFrontiers();
+            Node node = new OthelloNode(PlayerType.BLACK, game.getView(), 0);
+
+            while (!node.isTerminal()) {
+                GameView view = node.getGameView();
+                PlayerType toMove = node.getCurrentPlayerType();
+                Bitboard board = Bitboard.fromView(view);
+                long player = board.get(toMove);
+                long opponent = board.get(node.getOtherPlayerType());
+
+                List<Node> children = node.getChildren();
+                long expectedMoves = 0L;
+                for (Node child : children) {
+                    if (child.getLastMove() == null) {
+                        continue; // pass
+                    }
+                    int sq = Bitboard.square(child.getLastMove());
+                    expectedMoves |= 1L << sq;
+
+                    long flipped = Bitboard.flips(player, opponent, sq);
+                    Bitboard after = Bitboard.fromView(child.getGameView());
+                    assertEquals("discs after " + sq, player | flipped | (1L << sq), after.get(toMove));
+                    assertEquals("opponent after " + sq, opponent & ~flipped, after.get(node.getOtherPlayerType()));
+                }
+                assertEquals("legal moves, game " + gameNumber, expectedMoves, Bitboard.legalMoves(player, opponent));
+
+                node = children.get(random.nextInt(children.size()));
+            }
+        }
+    }
+
+    @Test
+    public void toSquaresListsSetBitsLowestFirst() {
+        int[] squares = new int[Bitboard.NUM_SQUARES];
+        int n = Bitboard.toSquares(Bitboard.CORNERS | (1L << 20), squares);
+        assertEquals(5, n);
+        assertArrayEquals(new int[] {0, 7, 20, 56, 63}, Arrays.copyOf(squares, n));
+    }
+}
@@ -0,0 +1,105 @@
+package src.pas.othello.test;
+
+// SYSTEM IMPORTS
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+// JAVA PROJECT IMPORTS
+import src.pas.othello.bitboard.Bitboard;
+import src.pas.othello.search.TranspositionTable;
+import src.pas.othello.search.Zobrist;
+
+
+/**
+ * TranspositionTable entries read back exactly as stored, and Zobrist's incremental updates
+ * agree with hashing the position from scratch.
+ */
+public class TranspositionTableTest {
+
+    private static final double SCORE_EPSILON = 0.5 / TranspositionTable.SCORE_SCALE;
+
+    @Test
+    public void packedFieldsRoundTrip() {
+        TranspositionTable table = new TranspositionTable(4);
+        double[] scores = {0.0, 1.25, -1.25, 100.0, -100.0, 12345.6789, -98765.4321};
+        int[] depths = {0, 1, 17, 254, TranspositionTable.SOLVED_DEPTH};
+        int[] bounds = {TranspositionTable.EXACT, TranspositionTable.LOWER, TranspositionTable.UPPER};
+        int[] moves = {0, 9, 63, TranspositionTable.NO_MOVE};
+
+        long hash = 0x123456789ABCDEFL;
+        for (double score : scores) {
+            for (int depth : depths) {
+                for (int bound : bounds) {
+                    for (int move : moves) {
+                        table.clear();
+                        table.store(hash, depth, bound, score, move);
+                        long packed = table.probe(hash);
+                        assertNotEquals(TranspositionTable.MISS, packed);
+                        assertEquals(score, TranspositionTable.getScore(packed), SCORE_EPSILON);
+                        assertEquals(depth, TranspositionTable.getDepth(packed));
+                        assertEquals(bound, TranspositionTable.getBound(packed));
+                        assertEquals(move, TranspositionTable.getMove(packed));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void depthsPastTheFieldAreSolved() {
+        TranspositionTable table = new TranspositionTable(4);
+        table.store(42L, 1000, TranspositionTable.EXACT, 3.0, 5);
+        assertEquals(TranspositionTable.SOLVED_DEPTH, TranspositionTable.getDepth(table.probe(42L)));
+    }
+
+    @Test
+    public void otherKeysMissAndBucketsKeepTwoEntries() {
+        TranspositionTable table = new TranspositionTable(4);
+        long deep = 3L;
+        long shallow = deep + (1L << 20); // same bucket
+        table.store(deep, 8, TranspositionTable.EXACT, 1.0, 1);
+        table.store(shallow, 2, TranspositionTable.LOWER, 2.0, 2);
+
+        assertEquals(TranspositionTable.MISS, table.probe(deep + 1));
+        assertEquals(8, TranspositionTable.getDepth(table.probe(deep)));
+        assertEquals(2, TranspositionTable.getDepth(table.probe(shallow)));
+
+        table.clear();
+        assertEquals(TranspositionTable.MISS, table.probe(deep));
+    }
+
+    @Test
+    public void incrementalZobristMatchesFullHash() {
+        Random random = new Random(7);
+        long max = 0x0000000810000000L;
+        long min = 0x0000001008000000L;
+        boolean maxToMove = true;
+        long hash = Zobrist.hash(max, min, maxToMove);
+        int[] squares = new int[Bitboard.NUM_SQUARES];
+
+        for (int ply = 0; ply < 60; ply++) {
+            long toMove = maxToMove ? max : min;
+            long waiting = maxToMove ? min : max;
+            int count = Bitboard.toSquares(Bitboard.legalMoves(toMove, waiting), squares);
+            if (count == 0) {
+                if (Bitboard.legalMoves(waiting, toMove) == 0L) {
+                    break;
+                }
+                hash = Zobrist.afterPass(hash);
+            } else {
+                int sq = squares[random.nextInt(count)];
+                long flipped = Bitboard.flips(toMove, waiting, sq);
+                toMove |= flipped | (1L << sq);
+                waiting &= ~flipped;
+                hash = Zobrist.afterMove(hash, sq, flipped, maxToMove);
+                max = maxToMove ? toMove : waiting;
+                min = maxToMove ? waiting : toMove;
+            }
+            maxToMove = !maxToMove;
+            assertEquals("ply " + ply, Zobrist.hash(max, min, maxToMove), hash);
+        }
+    }
+}
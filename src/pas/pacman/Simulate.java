@@ -0,0 +1,247 @@
+package src.pas.pacman;
+
+
+// SYSTEM IMPORTS
+import java.lang.reflect.Constructor;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.Namespace;
+
+
+// JAVA PROJECT IMPORTS
+import edu.bu.pas.pacman.agents.Agent;
+import edu.bu.pas.pacman.agents.GhostAgent;
+import edu.bu.pas.pacman.game.Action;
+import edu.bu.pas.pacman.game.Difficulty;
+import edu.bu.pas.pacman.game.Game;
+import edu.bu.pas.pacman.game.Game.GameView;
+import edu.bu.pas.pacman.game.entity.Entity;
+import edu.bu.pas.pacman.game.entity.Ghost;
+import edu.bu.pas.pacman.utils.Coordinate;
+
+import src.pas.pacman.agents.PacmanAgent;
+
+
+/**
+ * Headless batch runner for Pacman agents: plays N games per Difficulty on a thread pool
+ * and prints throughput, win rate, pellets eaten and makeMove latency percentiles.
+ *
+ * Every game gets a fresh agent instance and a fixed seed, baseSeed + 1_000_003 * difficulty
+ * + game index. PacmanAgent's background pellet planning is switched off unless
+ * --asyncPlanning is given: with it on, which tour a move follows depends on how long the
+ * planner thread took, so results vary with machine load. With it off, runs are repeatable
+ * however the games are scheduled, apart from the agent's own random fallback moves and any
+ * planner given a wall-clock limit (ANYTIME_ASTAR, LOCAL_SEARCH). The first exception of each
+ * difficulty is printed to stderr. Game ignores the board sizes in Constants, so a
+ * difficulty here means a ghost count (EASY 0, MEDIUM 1, HARD 2, INSANE 3) on the default
+ * board. Games are set up the same way as edu.bu.pas.pacman.Main. --distanceCache gives every
+ * PacmanAgent the same on-disk distance table cache, so only the first game on a layout builds
+ * its table.
+ *
+ * java -cp "lib/*:." src.pas.pacman.Simulate -a src.pas.pacman.agents.PacmanAgent -n 1000
+ * java -cp "lib/*:." src.pas.pacman.Simulate -n 1000 --distanceCache /tmp/pacman-distance-cache
+ */
+public class Simulate
+    extends Object
+{
+
+    private static final Coordinate PACMAN_START = new Coordinate(3, 5);
+    private static final Coordinate GHOST_PEN = new Coordinate(5, 1);
+    private static final int[] GHOSTS_BY_DIFFICULTY = {0, 1, 2, 3}; // indexed by Difficulty.ordinal()
+
+    /** Outcome of one game. */
+    private static class GameResult
+    {
+        boolean won = false;
+        boolean crashed = false;
+        Exception failure = null;   // why the game crashed
+        long seed = 0;
+        int pelletsEaten = 0;
+        int turns = 0;
+        long[] moveNanos = new long[0];
+    }
+
+    /** Forwards to the real agent and records how long every makeMove call took. */
+    private static class TimedAgent
+        extends Agent
+    {
+        private final Agent inner;
+        private long[] nanos = new long[256];
+        private int count = 0;
+
+        TimedAgent(final Agent inner)
+        {
+            super(inner.getMyEntityId(), inner.getPacmanId(), inner.getGhostChaseRadius());
+            this.inner = inner;
+        }
+
+        long[] getMoveNanos() { return Arrays.copyOf(this.nanos, this.count); }
+
+        @Override
+        public Action makeMove(final GameView game)
+        {
+            long start = System.nanoTime();
+            try {
+                return this.inner.makeMove(game);
+            } finally {
+                if (this.count == this.nanos.length) this.nanos = Arrays.copyOf(this.nanos, 2 * this.count);
+                this.nanos[this.count++] = System.nanoTime() - start;
+            }
+        }
+
+        @Override
+        public void afterGameEnds(final GameView game) { this.inner.afterGameEnds(game); }
+
+        @Override
+        public void resetOnPacmansNextLife(final GameView game) { this.inner.resetOnPacmansNextLife(game); }
+    }
+
+    private static Agent newAgent(final String className, final int pacmanId, final int chaseRadius) throws Exception
+    {
+        Constructor<?> ctor = Class.forName(className).getConstructor(int.class, int.class, int.class);
+        return (Agent) ctor.newInstance(pacmanId, pacmanId, chaseRadius);
+    }
+
+    private static GameResult playGame(final Namespace ns, final int numGhosts, final long seed)
+    {
+        GameResult result = new GameResult();
+        result.seed = seed;
+        try {
+            Game game = new Game(PACMAN_START, GHOST_PEN, numGhosts, ns.getInt("numPacmanLives"),
+                                 seed, ns.getInt("maxTurnsPerGame"));
+            int pacmanId = game.getPacman().getId();
+            int chaseRadius = ns.getInt("ghostChaseRadius");
+            Agent pacman = newAgent(ns.getString("agent"), pacmanId, chaseRadius);
+            if (pacman instanceof PacmanAgent) {
+                ((PacmanAgent) pacman).setAsyncPelletPlanning(ns.getBoolean("asyncPlanning"));
+                String cacheDir = ns.getString("distanceCache");
+                if (cacheDir != null) ((PacmanAgent) pacman).setDistanceCacheDirectory(Paths.get(cacheDir));
+            }
+            TimedAgent agent = new TimedAgent(pacman);
+            game.setPacmanAgent(agent);
+            for (Entity e : game.getBoard().getEntities().values()) {
+                if (e instanceof Ghost) {
+                    game.addGhostAgent(new GhostAgent(e.getId(), pacmanId, chaseRadius,
+                                                      game.getBoard().getRandom(), ns.getDouble("ghostBackoffProb")));
+                }
+            }
+
+            while (!game.isGameOver()) {
+                game.playTurn();
+            }
+            agent.afterGameEnds(new GameView(game));
+            for (Agent ghost : game.getGhostAgents()) ghost.afterGameEnds(new GameView(game));
+
+            result.won = game.getPacman().getIsAlive() && game.getNumPelletsRemaining() <= 0;
+            result.pelletsEaten = game.getTotalPellets() - game.getNumPelletsRemaining();
+            result.turns = game.getTurnNumber();
+            result.moveNanos = agent.getMoveNanos();
+        } catch (Exception e) {
+            result.crashed = true;
+            result.failure = e;
+        }
+        return result;
+    }
+
+    private static double percentileMicros(final long[] sorted, final double p)
+    {
+        if (sorted.length == 0) return 0.0;
+        int i = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, i))] / 1e3;
+    }
+
+    private static void report(final Difficulty difficulty, final List<GameResult> results, final double seconds)
+    {
+        int wins = 0;
+        int crashes = 0;
+        long pellets = 0;
+        long turns = 0;
+        int numMoves = 0;
+        for (GameResult r : results) {
+            if (r.won) wins++;
+            if (r.crashed && crashes++ == 0) {
+                System.err.println(difficulty + ": first crash, seed " + r.seed + ":");
+                r.failure.printStackTrace();
+            }
+            pellets += r.pelletsEaten;
+            turns += r.turns;
+            numMoves += r.moveNanos.length;
+        }
+        long[] latencies = new long[numMoves];
+        int at = 0;
+        for (GameResult r : results) {
+            System.arraycopy(r.moveNanos, 0, latencies, at, r.moveNanos.length);
+            at += r.moveNanos.length;
+        }
+        Arrays.sort(latencies);
+
+        int n = results.size();
+        System.out.printf("%-6s games=%d games/s=%.1f win=%.1f%% pellets/game=%.2f turns/game=%.1f crashes=%d"
+                          + " makeMove us p50=%.1f p95=%.1f p99=%.1f max=%.1f%n",
+                          difficulty, n, n / seconds, 100.0 * wins / n, (double) pellets / n, (double) turns / n,
+                          crashes, percentileMicros(latencies, 0.50), percentileMicros(latencies, 0.95),
+                          percentileMicros(latencies, 0.99), percentileMicros(latencies, 1.0));
+    }
+
+    public static void main(final String[] args) throws Exception
+    {
+        ArgumentParser parser = ArgumentParsers.newFor("Simulate").build()
+            .defaultHelp(true)
+            .description("Plays Pacman games headless in parallel and reports planner performance");
+        parser.addArgument("-a", "--agent").type(String.class).setDefault("src.pas.pacman.agents.PacmanAgent")
+            .help("fully-qualified class of the pacman agent");
+        parser.addArgument("-n", "--gamesPerDifficulty").type(Integer.class).setDefault(100)
+            .help("number of games to play for each difficulty");
+        parser.addArgument("-d", "--difficulty").type(String.class).nargs("*")
+            .choices("EASY", "MEDIUM", "HARD", "INSANE").setDefault(Arrays.asList("EASY", "MEDIUM", "HARD", "INSANE"))
+            .help("difficulties to play");
+        parser.addArgument("-j", "--threads").type(Integer.class).setDefault(Runtime.getRuntime().availableProcessors())
+            .help("number of games played at once");
+        parser.addArgument("-p", "--numPacmanLives").type(Integer.class).setDefault(1)
+            .help("the number of lives pacman has in a single game");
+        parser.addArgument("-r", "--ghostChaseRadius").type(Integer.class).setDefault(2)
+            .help("the chebyshev distance <= which ghosts start chasing pacman");
+        parser.addArgument("-b", "--ghostBackoffProb").type(Double.class).setDefault(0.5)
+            .help("probability ghosts 'forget' to keep chasing pacman");
+        parser.addArgument("-t", "--maxTurnsPerGame").type(Integer.class).setDefault(10000)
+            .help("the maximum number of turns allowed in a single game");
+        parser.addArgument("--seed").type(Long.class).setDefault(12345L)
+            .help("base seed; game i of a difficulty uses a seed derived from it");
+        parser.addArgument("--asyncPlanning").action(Arguments.storeTrue())
+            .help("let PacmanAgent plan pellet tours in the background (results then depend on timing)");
+        parser.addArgument("--distanceCache").type(String.class).metavar("DIR")
+            .help("directory PacmanAgent caches maze distance tables in, shared by every game (off if omitted)");
+        Namespace ns = parser.parseArgsOrFail(args);
+
+        int gamesPerDifficulty = ns.getInt("gamesPerDifficulty");
+        long baseSeed = ns.getLong("seed");
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, ns.getInt("threads")));
+        try {
+            for (Object name : ns.getList("difficulty")) {
+                Difficulty difficulty = Difficulty.valueOf(name.toString());
+                int numGhosts = GHOSTS_BY_DIFFICULTY[difficulty.ordinal()];
+
+                long start = System.nanoTime();
+                List<Future<GameResult>> futures = new ArrayList<>(gamesPerDifficulty);
+                for (int i = 0; i < gamesPerDifficulty; i++) {
+                    long seed = baseSeed + 1_000_003L * difficulty.ordinal() + i;
+                    futures.add(pool.submit(() -> playGame(ns, numGhosts, seed)));
+                }
+                List<GameResult> results = new ArrayList<>(gamesPerDifficulty);
+                for (Future<GameResult> f : futures) results.add(f.get());
+                report(difficulty, results, (System.nanoTime() - start) / 1e9);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -1,9 +1,7 @@
 package src.pas.pacman.agents;
 
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -14,6 +12,13 @@ import java.util.Random;
 import java.util.Set;
 import java.util.Stack;
 import java.util.Iterator;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 
 // JAVA PROJECT IMPORTS
@@ -21,34 +26,138 @@ import edu.bu.pas.pacman.agents.Agent;
 import edu.bu.pas.pacman.agents.SearchAgent;
 import edu.bu.pas.pacman.interfaces.ThriftyPelletEater;
 import edu.bu.pas.pacman.game.Action;
+import edu.bu.pas.pacman.game.DefaultBoard.CellState;
 import edu.bu.pas.pacman.game.Game.GameView;
 import edu.bu.pas.pacman.graph.Path;
 import edu.bu.pas.pacman.graph.PelletGraph.PelletVertex;
 import edu.bu.pas.pacman.utils.Coordinate;
 import edu.bu.pas.pacman.utils.Pair;
 
+import src.pas.pacman.graph.DistanceTableCache;
+import src.pas.pacman.graph.JunctionGraph;
+import src.pas.pacman.graph.MazeDistanceTable;
+import src.pas.pacman.graph.MazeGraph;
+import src.pas.pacman.heuristics.MstHeuristic;
+import src.pas.pacman.risk.GhostReachability;
+import src.pas.pacman.risk.GhostRiskField;
+import src.pas.pacman.search.GridSearch;
+import src.pas.pacman.search.BoundedPelletSearch;
+import src.pas.pacman.search.HeldKarpSolver;
+import src.pas.pacman.search.IncrementalPathSearch;
+import src.pas.pacman.search.JunctionSearch;
+import src.pas.pacman.search.JumpPointSearch;
+import src.pas.pacman.search.LocalSearchTourPlanner;
+import src.pas.pacman.search.ParallelPelletSearch;
+import src.pas.pacman.search.PelletIndex;
+import src.pas.pacman.search.PelletStateHeuristic;
+import src.pas.pacman.search.PelletStateKey;
+import src.pas.pacman.search.RealTimeSearch;
+import src.pas.pacman.search.SearchBudget;
+import src.pas.pacman.search.TilePathSearch;
+import src.pas.pacman.telemetry.PlanningTelemetry;
+
 
 public class PacmanAgent
     extends SearchAgent
     implements ThriftyPelletEater
 {
 
+    /** Which estimate the pellet-level A* uses for the cost of eating the remaining pellets. */
+    public static enum PelletHeuristic
+    {
+        PELLET_COUNT, // remaining pellets + ghost penalty (cheap, inadmissible near ghosts)
+        MAZE_MST      // nearest pellet + MST over remaining pellets (admissible)
+    }
+
+    /** How findPathToEatAllPelletsTheFastest searches the pellet states. */
+    public static enum PelletPlanner
+    {
+        ASTAR,          // optimal A*, unbounded
+        ANYTIME_ASTAR,  // weighted A* with decreasing weight, bounded by node and time limits
+        LOCAL_SEARCH,   // nearest-neighbour tour improved by 2-opt / Or-opt (approximate, 100+ pellets)
+        PARALLEL_ASTAR, // optimal hash-distributed A* (HDA*) on parallelThreads workers
+        IDASTAR         // optimal IDA* with a transposition table capped at idaTableEntries (bounded memory)
+    }
+
+    /** Graph that point-to-point tile queries (makePlan, graphSearch) run on. */
+    public static enum TileSearch
+    {
+        GRID,           // A* over every walkable tile
+        JUNCTION_GRAPH  // A* over junctions and dead ends, corridors relaxed as single edges
+    }
+
+    /** How makeMove picks the next step. */
+    public static enum MoveMode
+    {
+        PLANNED,    // follow the pellet tour with full tile paths to each target
+        REAL_TIME   // RTAA* toward the nearest pellet: bounded lookahead, constant work per move
+    }
+
     private final Random random;
-    // Cache for pairwise distances between coordinates (used by getEdgeWeight)
-    private final Map<String, Float> distanceCache = new HashMap<>();
+    private MoveMode moveMode = MoveMode.PLANNED;
+    private int realTimeLookahead = 16;           // tiles expanded per move in REAL_TIME mode
+    private TileSearch tileSearch = TileSearch.JUNCTION_GRAPH;
+    private boolean incrementalReplanning = true; // repair the path to the current target every move (D* Lite)
+    private boolean jumpPointQueries = false;     // jump point search for queries no ghost is near
+    private PelletHeuristic pelletHeuristic = PelletHeuristic.MAZE_MST;
+    private int mstCacheSize = MstHeuristic.DEFAULT_CACHE_SIZE;
+
+    private PelletPlanner pelletPlanner = PelletPlanner.ASTAR;
+    private float anytimeInitialWeight = 3f;
+    private float anytimeWeightStep = 0.5f;
+    private long anytimeNodeLimit = 2_000_000L;
+    private long anytimeTimeLimitMs = 500L;
+    private int heldKarpThreshold = 18;          // solve exactly at or below this many pellets
+    private long localSearchTimeLimitMs = 200L;
+    private int parallelThreads = Runtime.getRuntime().availableProcessors();
+    private int idaTableEntries = BoundedPelletSearch.DEFAULT_MAX_ENTRIES;
+
+    // Background pellet planning: makeMove waits at most planWaitBudgetMs for the tour,
+    // and walks to the nearest pellet while it is still being computed
+    private boolean asyncPelletPlanning = true;
+    private long planWaitBudgetMs = 10L;
+    private ExecutorService plannerExecutor = null;
+    private Future<Path<PelletVertex>> pendingPelletPath = null;
+    private Future<MazeDistanceTable> pendingDistances = null; // all-pairs table being built on the planner thread
+
+    // Cost and wall-clock time of the last findPathToEatAllPelletsTheFastest call (may be written by the planner thread)
+    private volatile float lastTourCost = Float.POSITIVE_INFINITY;
+    private volatile double lastPlanningMillis = 0.0;
+
+    // Per-move planning counters: JFR events, optional CSV, per-game summary in afterGameEnds
+    private final PlanningTelemetry telemetry = new PlanningTelemetry();
+
+    // Walkable tiles of the board and all-pairs maze distances (built once per game)
+    private MazeGraph mazeGraph = null;
+    private MazeDistanceTable mazeDistances = null;
+    private int layoutCheckedTurn = -1;             // turn mazeGraph was last compared against the board
+    private DistanceTableCache distanceCache = null; // on-disk tables, opt in (see setDistanceCacheDirectory)
+    private TilePathSearch tilePathSearch = null;
+    private IncrementalPathSearch replanSearch = null; // makePlan's search when incrementalReplanning is on
+    private RealTimeSearch realTimeSearch = null;
+    private JumpPointSearch jumpPointSearch = null;    // uniform-cost shortcut for ghost-free queries
+    private int realTimeTarget = MazeGraph.NO_TILE;
+    private GhostRiskField ghostRiskField = null; // nearest-ghost distance and risk per tile, updated every move
+    private GhostReachability ghostReachability = null; // cells each upcoming tick a ghost could be on, updated every move
+    private boolean dodgedLastMove = false;             // stepped off the plan to avoid a ghost: replan from here
+
+    // Pellet numbering and MST heuristic behind getHeuristic(PelletVertex, GameView); each plan makes its own
+    private PelletIndex pelletIndex = null;
+    private MstHeuristic mstHeuristic = null;
 
     // Path and iterators for pellet-level planning
     private Path<PelletVertex> currentPelletPath = null;
     private Iterator<PelletVertex> pelletPathIterator = null;
     private PelletVertex currentTargetVertex = null;
 
-    //  Risk / Ghost avoidance
-    private static final float GHOST_RISK_WEIGHT = 0.8f; // how strong ghost avoidance is
-    private static final int GHOST_RADIUS = 6;            // how far the danger spreads
+    //  Risk / Ghost avoidance (public so GhostDistanceBenchmark sizes its fields the same way)
+    public static final float GHOST_RISK_WEIGHT = 0.8f; // how strong ghost avoidance is
+    public static final int GHOST_RADIUS = 6;            // how far the danger spreads
+    public static final int DODGE_LOOKAHEAD = 3;         // ticks a step must stay clear of reachable ghosts
 
-    // cache ghost distances (updated each move)
-    private Map<Coordinate, Integer> ghostDistances = new HashMap<>();
 
+    /** System property naming the distance cache directory of agents the game constructs itself. */
+    public static final String DISTANCE_CACHE_PROPERTY = "pacman.distanceCache";
 
     public PacmanAgent(int myUnitId,
                        int pacmanId,
@@ -56,10 +165,89 @@ public class PacmanAgent
     {
         super(myUnitId, pacmanId, ghostChaseRadius);
         this.random = new Random();
+        String cacheDir = System.getProperty(DISTANCE_CACHE_PROPERTY);
+        if (cacheDir != null && !cacheDir.isEmpty()) {
+            setDistanceCacheDirectory(java.nio.file.Paths.get(cacheDir));
+        }
     }
 
     public final Random getRandom() { return this.random; }
 
+    public final TileSearch getTileSearch() { return this.tileSearch; }
+    public void setTileSearch(TileSearch t) { this.tileSearch = t; this.mazeGraph = null; } // rebuilt on next use
+
+    public final MoveMode getMoveMode() { return this.moveMode; }
+    public void setMoveMode(MoveMode m) { this.moveMode = m; }
+
+    /** Tiles REAL_TIME mode may expand per move (takes effect on the next board). */
+    public void setRealTimeLookahead(int tiles) { this.realTimeLookahead = tiles; this.mazeGraph = null; }
+
+    /**
+     * Directory of the on-disk distance table cache; null disables it. Off by default. With it
+     * on, a board whose layout was seen before maps its all-pairs table from disk instead of
+     * rebuilding it. Agents constructed by the game read the directory from the
+     * pacman.distanceCache system property (java -Dpacman.distanceCache=/tmp/pacman-distance-cache ...),
+     * and Simulate takes it as --distanceCache.
+     */
+    public void setDistanceCacheDirectory(java.nio.file.Path dir) {
+        this.distanceCache = dir == null ? null : new DistanceTableCache(dir);
+    }
+
+    public final boolean getIncrementalReplanning() { return this.incrementalReplanning; }
+    public void setIncrementalReplanning(boolean on) { this.incrementalReplanning = on; }
+
+    /**
+     * Answer tile queries with jump point search when no ghost is within GHOST_RADIUS of the
+     * start-goal box and the path it finds is risk-free; otherwise use the risk-weighted search.
+     * Off by default: it only pays off on boards much larger than the game's (see
+     * GraphSearchBenchmark), and costs more per query on small ones.
+     */
+    public final boolean getJumpPointQueries() { return this.jumpPointQueries; }
+    public void setJumpPointQueries(boolean on) { this.jumpPointQueries = on; }
+
+    public final PelletHeuristic getPelletHeuristic() { return this.pelletHeuristic; }
+    public void setPelletHeuristic(PelletHeuristic h) { this.pelletHeuristic = h; }
+    public void setMstCacheSize(int entries) { this.mstCacheSize = entries; }
+
+    public final PelletPlanner getPelletPlanner() { return this.pelletPlanner; }
+    public void setPelletPlanner(PelletPlanner p) { this.pelletPlanner = p; }
+
+    public void setLocalSearchTimeLimit(long maxMillis) { this.localSearchTimeLimitMs = maxMillis; }
+    public void setParallelThreads(int threads) { this.parallelThreads = Math.max(1, threads); }
+
+    /** Most pellet states IDASTAR remembers; fewer means less memory and more re-expansions. */
+    public void setIdaTableEntries(int maxEntries) { this.idaTableEntries = Math.max(1, maxEntries); }
+
+    public final boolean getAsyncPelletPlanning() { return this.asyncPelletPlanning; }
+    public void setAsyncPelletPlanning(boolean on) { this.asyncPelletPlanning = on; }
+
+    /** Longest makeMove blocks waiting for a background pellet tour before moving greedily. */
+    public void setPlanWaitBudget(long maxMillis) { this.planWaitBudgetMs = maxMillis; }
+
+    /** Length in moves of the last planned pellet tour (infinite if none was found). */
+    public final float getLastTourCost() { return this.lastTourCost; }
+    public final double getLastPlanningMillis() { return this.lastPlanningMillis; }
+
+    /** Planning counters of every move and game; attach a CsvTelemetrySink here to log them. */
+    public final PlanningTelemetry getTelemetry() { return this.telemetry; }
+
+    /** Pellet count at or below which the tour is solved exactly by Held-Karp (0 disables). */
+    public void setHeldKarpThreshold(int maxPellets) {
+        this.heldKarpThreshold = Math.min(maxPellets, HeldKarpSolver.MAX_PELLETS);
+    }
+
+    /** Weight schedule of ANYTIME_ASTAR: start at initialWeight, subtract step each pass down to 1. */
+    public void setAnytimeWeights(float initialWeight, float step) {
+        this.anytimeInitialWeight = initialWeight;
+        this.anytimeWeightStep = step;
+    }
+
+    /** Total node expansions and wall-clock milliseconds ANYTIME_ASTAR may spend per plan. */
+    public void setAnytimeLimits(long maxNodes, long maxMillis) {
+        this.anytimeNodeLimit = maxNodes;
+        this.anytimeTimeLimitMs = maxMillis;
+    }
+
     @Override
     public Set<PelletVertex> getOutoingNeighbors(final PelletVertex current, final GameView view) {
     // Returns all states reachable by consuming exactly one additional pellet.
@@ -77,152 +265,449 @@ public class PacmanAgent
 
     @Override
     public float getEdgeWeight(final PelletVertex from, final PelletVertex to) {
-    String key = formatCacheKey(from.getPacmanCoordinate(), to.getPacmanCoordinate());
+    if (mazeDistances == null) {
+        // Tables not built yet — treat as unresolved
+        return Float.POSITIVE_INFINITY;
+    }
+
+    int d = mazeDistances.getDistance(from.getPacmanCoordinate(), to.getPacmanCoordinate());
+    return d == MazeDistanceTable.UNREACHABLE ? Float.POSITIVE_INFINITY : (float) d;
+}
 
-    Float known = distanceCache.get(key);
-    if (known != null) {
-        return known;
+// Builds the maze graph and distance table the first time we see a board (layout compared once per turn).
+// With async planning the all-pairs table is built on the planner thread, and a row cache filled by one
+// BFS per queried source answers until it is swapped in. The tile searches look distances up from their
+// goal (or start) tile, so an interim query costs at most one BFS on the game thread.
+    private void ensureMazeTables(GameView view) {
+    if (mazeGraph != null
+        && (view.getTurnNumber() == layoutCheckedTurn || mazeGraph.matches(view))) {
+        layoutCheckedTurn = view.getTurnNumber();
+        installPendingDistances();
+        return;
+    }
+    mazeGraph = new MazeGraph(view);
+    layoutCheckedTurn = view.getTurnNumber();
+    if (pendingDistances != null) {
+        pendingDistances.cancel(true);
+        pendingDistances = null;
     }
+    if (asyncPelletPlanning) {
+        MazeGraph graph = mazeGraph;
+        DistanceTableCache cache = distanceCache;
+        pendingDistances = getPlannerExecutor().submit(() -> buildDistanceTable(graph, cache));
+        mazeDistances = new MazeDistanceTable(mazeGraph, 0);
+    } else {
+        mazeDistances = buildDistanceTable(mazeGraph, distanceCache);
+    }
+    buildTileSearches();
+    realTimeTarget = MazeGraph.NO_TILE;
+    ghostRiskField = new GhostRiskField(mazeGraph, GHOST_RADIUS, GHOST_RISK_WEIGHT);
+    // far enough ahead for a ghost at the edge of the risk field to close in to its chase radius
+    ghostReachability = new GhostReachability(mazeGraph, view, DODGE_LOOKAHEAD); // safeDepth reads no further
+    dodgedLastMove = false;
+    pelletIndex = null;
+    mstHeuristic = null;
+}
 
-    // No cached distance — treat as unresolved until computed during search
-    return Float.POSITIVE_INFINITY;
+// All-pairs distances of graph, read from or stored to cache unless it is null (may run on the planner thread)
+private MazeDistanceTable buildDistanceTable(MazeGraph graph, DistanceTableCache cache) {
+    if (cache == null) {
+        return new MazeDistanceTable(graph);
+    }
+    long hits = cache.getHits();
+    long misses = cache.getMisses();
+    MazeDistanceTable table = cache.getOrBuild(graph);
+    telemetry.recordDistanceCache(cache.getHits() - hits, cache.getMisses() - misses);
+    return table;
 }
 
-// Utility: creates symmetric key for cache lookups
-    private String formatCacheKey(Coordinate a, Coordinate b) {
-    int ax = a.getXCoordinate(), ay = a.getYCoordinate();
-    int bx = b.getXCoordinate(), by = b.getYCoordinate();
+// Tile searches over mazeGraph, using mazeDistances as their heuristic
+private void buildTileSearches() {
+    tilePathSearch = tileSearch == TileSearch.JUNCTION_GRAPH
+        ? new JunctionSearch(new JunctionGraph(mazeGraph), mazeDistances)
+        : new GridSearch(mazeGraph, mazeDistances);
+    replanSearch = new IncrementalPathSearch(mazeGraph, mazeDistances);
+    realTimeSearch = new RealTimeSearch(mazeGraph, mazeDistances, realTimeLookahead);
+    jumpPointSearch = new JumpPointSearch(mazeGraph, mazeDistances);
+}
 
-    // Order coordinates lexicographically to maintain symmetry
-    if (ax < bx || (ax == bx && ay <= by)) {
-        return ax + "," + ay + ":" + bx + "," + by;
-    } else {
-        return bx + "," + by + ":" + ax + "," + ay;
+// Swaps the planner thread's all-pairs table in for the row cache once it is done (keeps the cache if it failed)
+private void installPendingDistances() {
+    if (pendingDistances == null || !pendingDistances.isDone()) {
+        return;
     }
+    try {
+        mazeDistances = pendingDistances.get();
+        buildTileSearches();
+    } catch (ExecutionException | CancellationException e) {
+        // the row cache answers the same queries, just more slowly
+    } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+    }
+    pendingDistances = null;
+}
+
+private ExecutorService getPlannerExecutor() {
+    if (plannerExecutor == null) {
+        plannerExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "pacman-pellet-planner");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+    return plannerExecutor;
 }
 
 
     @Override
     public float getHeuristic(final PelletVertex state, final GameView view) {
+    if (pelletHeuristic == PelletHeuristic.MAZE_MST) {
+        ensureMazeTables(view);
+        if (pelletIndex == null) {
+            preparePelletSearch(state.getRemainingPelletCoordinates());
+        }
+        return mstHeuristic.estimate(pelletIndex.keyOf(state));
+    }
+
     float pellets = state.getRemainingPelletCoordinates().size();
     Coordinate pac = state.getPacmanCoordinate();
     float ghostPenalty = ghostRisk(pac) * 2f; // small extra fear near ghosts
     return pellets + ghostPenalty;
 }
 
+// Numbers the pellets for getHeuristic(PelletVertex, GameView) and resets its subset-memoized MST heuristic
+    private void preparePelletSearch(Set<Coordinate> remainingPellets) {
+    pelletIndex = new PelletIndex(mazeGraph, remainingPellets);
+    mstHeuristic = new MstHeuristic(pelletIndex, mazeDistances, mstCacheSize);
+}
 
+// Copy of the ghost risk for a PELLET_COUNT plan, which the moves made meanwhile can't change (null for MAZE_MST)
+private float[] riskSnapshot() {
+    return pelletHeuristic == PelletHeuristic.MAZE_MST ? null : ghostRiskField.getRiskArray().clone();
+}
 
     @Override
     public Path<PelletVertex> findPathToEatAllPelletsTheFastest(final GameView view) {
-    PriorityQueue<SearchNode> openSet = new PriorityQueue<>();
-    Map<String, SearchNode> bestSeen = new HashMap<>();
-    Set<String> closedSet = new HashSet<>();
+    ensureMazeTables(view);
+    return timedPelletTour(new PelletPlan(new PelletVertex(view), mazeGraph, mazeDistances, riskSnapshot(), mstCacheSize));
+}
+
+// Runs one plan (on the planner thread when planning is async) and records its cost and timing.
+// A plan cancelled by afterGameEnds returns null and records nothing into the next game's stats.
+private Path<PelletVertex> timedPelletTour(PelletPlan plan) {
+    long startNanos = System.nanoTime();
+    Path<PelletVertex> tour = planPelletTour(plan);
+    if (isPlanCancelled()) return null;
+
+    long elapsed = System.nanoTime() - startNanos;
+    if (plan.mst != null) telemetry.recordHeuristicCache(plan.mst.getCacheHits(), plan.mst.getCacheMisses());
+    telemetry.recordFindPath(elapsed);
+    lastPlanningMillis = elapsed / 1e6;
+    lastTourCost = tour == null ? Float.POSITIVE_INFINITY : tour.getTrueCost();
+    return tour;
+}
+
+// The planner thread is interrupted when its plan is cancelled; every planner polls this and gives up
+private static boolean isPlanCancelled() {
+    return Thread.currentThread().isInterrupted();
+}
+
+// Dispatches to the configured pellet planner (or Held-Karp when few pellets are left); null if cancelled
+private Path<PelletVertex> planPelletTour(PelletPlan plan) {
+    PelletIndex pellets = plan.pellets;
+    MazeDistanceTable distances = plan.distances;
+    int startTile = plan.graph.getTileId(plan.start.getPacmanCoordinate());
+    if (startTile == MazeGraph.NO_TILE) return null;
+
+    // Few pellets left: solve the tour exactly with the subset DP instead of searching
+    if (pellets.getNumPellets() <= heldKarpThreshold) {
+        HeldKarpSolver solver = new HeldKarpSolver(distances);
+        if (solver.solve(startTile, pellets)) {
+            return buildPathFromOrder(plan, solver.getOrder());
+        }
+        if (isPlanCancelled()) return null;
+    }
+
+    if (pelletPlanner == PelletPlanner.LOCAL_SEARCH) {
+        LocalSearchTourPlanner planner = new LocalSearchTourPlanner(distances);
+        return buildPathFromOrder(plan, planner.plan(startTile, pellets, localSearchTimeLimitMs));
+    }
+
+    if (pelletPlanner == PelletPlanner.PARALLEL_ASTAR) {
+        ParallelPelletSearch search = new ParallelPelletSearch(distances, parallelThreads);
+        List<PelletStateHeuristic> workers = new ArrayList<>(); // solve() asks for these on this thread
+        boolean solved = search.solve(startTile, pellets, () -> {
+            PelletStateHeuristic h = plan.newWorkerHeuristic();
+            workers.add(h);
+            return h;
+        });
+        if (isPlanCancelled()) return null;
+        telemetry.recordSearch(search.getNodesExpanded(), search.getNodesGenerated(), search.getOpenPeak());
+        for (PelletStateHeuristic h : workers) {
+            if (h instanceof MstHeuristic) {
+                telemetry.recordHeuristicCache(((MstHeuristic) h).getCacheHits(), ((MstHeuristic) h).getCacheMisses());
+            }
+        }
+        if (!solved) return null;
+        return buildPathFromOrder(plan, search.getOrder());
+    }
+
+    if (pelletPlanner == PelletPlanner.IDASTAR) {
+        BoundedPelletSearch search = new BoundedPelletSearch(distances, idaTableEntries);
+        SearchBudget budget = SearchBudget.unlimited();
+        boolean solved = search.solve(startTile, pellets, plan, budget);
+        if (budget.isCancelled()) return null;
+        telemetry.recordSearch(budget.getNodesExpanded(), search.getNodesGenerated(), 0); // depth-first: no open list
+        if (!solved) return null;
+        return buildPathFromOrder(plan, search.getOrder());
+    }
 
     // Start node initialization
-    SearchNode start = new SearchNode(new PelletVertex(view));
+    SearchNode start = new SearchNode(pellets.fullKey(startTile), PelletIndex.NO_PELLET, null);
     start.gCost = 0f;
-    start.hCost = getHeuristic(start.vertex, view);
+    start.hCost = plan.estimate(start.stateKey);
+
+    SearchNode goal;
+    if (pelletPlanner == PelletPlanner.ANYTIME_ASTAR) {
+        goal = anytimePelletSearch(start, plan);
+    } else {
+        PelletSearchResult pass = weightedPelletSearch(start, plan, 1f, Float.POSITIVE_INFINITY, SearchBudget.unlimited());
+        if (pass.cancelled) return null;
+        telemetry.recordSearch(pass.expanded, pass.generated, pass.openPeak);
+        goal = pass.goal;
+    }
+
+    // No complete path found
+    return goal == null ? null : buildPath(goal, plan);
+}
+
+/**
+ * Anytime weighted A*: a greedy first pass (weight anytimeInitialWeight on h) returns a tour
+ * quickly, then each pass lowers the weight and prunes against the best tour so far until
+ * the node or time budget runs out or a weight-1 pass proves the incumbent optimal.
+ * Returns null if the plan is cancelled.
+ */
+private SearchNode anytimePelletSearch(SearchNode start, PelletPlan plan) {
+    SearchBudget budget = new SearchBudget(anytimeNodeLimit, anytimeTimeLimitMs);
+    SearchNode best = null;
+    SearchNode deepest = start;
+
+    float weight = Math.max(1f, anytimeInitialWeight);
+    while (true) {
+        float incumbent = best == null ? Float.POSITIVE_INFINITY : best.gCost;
+        PelletSearchResult pass = weightedPelletSearch(start, plan, weight, incumbent, budget);
+        if (pass.cancelled) return null;
+        telemetry.recordSearch(pass.expanded, pass.generated, pass.openPeak);
+
+        if (pass.goal != null && (best == null || pass.goal.gCost < best.gCost)) {
+            best = pass.goal;
+        }
+        if (pass.deepest != null && isDeeper(pass.deepest, deepest)) {
+            deepest = pass.deepest;
+        }
+        if (pass.exhausted || weight <= 1f) {
+            break; // out of budget, or a weight-1 pass just finished (incumbent is optimal)
+        }
+        weight = anytimeWeightStep > 0f ? Math.max(1f, weight - anytimeWeightStep) : 1f;
+    }
+
+    // Budget ran out before any tour was completed: finish the most advanced partial tour greedily
+    return best != null ? best : completeGreedily(deepest, plan);
+}
+
+private static boolean isDeeper(SearchNode a, SearchNode b) {
+    int ra = a.stateKey.getNumRemaining();
+    int rb = b.stateKey.getNumRemaining();
+    return ra < rb || (ra == rb && a.gCost < b.gCost);
+}
+
+// Nearest-neighbour completion of a partial tour
+private SearchNode completeGreedily(SearchNode node, PelletPlan plan) {
+    PelletIndex pellets = plan.pellets;
+    while (!node.stateKey.isEmpty()) {
+        int from = node.stateKey.getPacmanTile();
+        int bestPellet = PelletIndex.NO_PELLET;
+        int bestDist = Integer.MAX_VALUE;
+        for (int p = node.stateKey.nextPellet(0); p >= 0; p = node.stateKey.nextPellet(p + 1)) {
+            int d = plan.distances.getDistance(from, pellets.getPelletTile(p));
+            if (d != MazeDistanceTable.UNREACHABLE && d < bestDist) {
+                bestDist = d;
+                bestPellet = p;
+            }
+        }
+        if (bestPellet == PelletIndex.NO_PELLET) return null; // remaining pellets unreachable
+
+        SearchNode next = new SearchNode(node.stateKey.eat(bestPellet, pellets), bestPellet, node);
+        next.gCost = node.gCost + bestDist;
+        node = next;
+    }
+    return node;
+}
 
+/**
+ * One A* pass over pellet states ordered by g + weight * h. Nodes whose unweighted
+ * g + h cannot beat incumbentCost are pruned. Stops early when the budget is exhausted.
+ */
+private PelletSearchResult weightedPelletSearch(SearchNode start, PelletPlan plan,
+                                                float weight, float incumbentCost, SearchBudget budget) {
+    PelletIndex pellets = plan.pellets;
+    PriorityQueue<SearchNode> openSet = new PriorityQueue<>();
+    Map<PelletStateKey, SearchNode> bestSeen = new HashMap<>();
+    Set<PelletStateKey> closedSet = new HashSet<>();
+    PelletSearchResult result = new PelletSearchResult();
+
+    start.priority = start.gCost + weight * start.hCost;
     openSet.add(start);
     bestSeen.put(start.stateKey, start);
+    result.deepest = start;
 
     while (!openSet.isEmpty()) {
         SearchNode current = openSet.poll();
         if (current == null) break;
+        if (closedSet.contains(current.stateKey)) continue; // stale duplicate
+        if (current.fCost() >= incumbentCost) continue;     // can't improve on the best tour
 
         // Goal test: all pellets consumed
-        if (current.vertex.getRemainingPelletCoordinates().isEmpty()) {
-            return buildPath(current);
+        if (current.stateKey.isEmpty()) {
+            result.goal = current;
+            return result;
+        }
+
+        if (!budget.expand()) {
+            result.exhausted = true;
+            result.cancelled = budget.isCancelled();
+            return result;
         }
 
         closedSet.add(current.stateKey);
+        result.expanded++;
+        if (isDeeper(current, result.deepest)) result.deepest = current;
+        int from = current.stateKey.getPacmanTile();
 
-        // Explore all possible next states (removing one pellet)
-        for (PelletVertex successor : getOutoingNeighbors(current.vertex, view)) {
-            SearchNode next = new SearchNode(successor);
-            if (closedSet.contains(next.stateKey)) continue;
-
-            // Retrieve distance between these two Pacman positions
-            float dist = getEdgeWeight(current.vertex, successor);
-            if (Float.isInfinite(dist)) {
-                // Not cached yet — compute via standard graph search and store
-                Path<Coordinate> subpath =
-                    graphSearch(current.vertex.getPacmanCoordinate(),
-                                successor.getPacmanCoordinate(),
-                                view);
-                dist = subpath.getTrueCost();
-                distanceCache.put(formatCacheKey(
-                    current.vertex.getPacmanCoordinate(),
-                    successor.getPacmanCoordinate()), dist);
-            }
+        // Explore all possible next states (eating one more pellet)
+        for (int p = current.stateKey.nextPellet(0); p >= 0; p = current.stateKey.nextPellet(p + 1)) {
+            // Precomputed maze distance between these two Pacman positions
+            int dist = plan.distances.getDistance(from, pellets.getPelletTile(p));
+            if (dist == MazeDistanceTable.UNREACHABLE) continue; // pellet unreachable from here
+
+            PelletStateKey nextKey = current.stateKey.eat(p, pellets);
+            result.generated++;
+            if (closedSet.contains(nextKey)) continue;
 
             float tentativeG = current.gCost + dist;
-            SearchNode recorded = bestSeen.get(next.stateKey);
+            SearchNode recorded = bestSeen.get(nextKey);
 
             if (recorded == null || tentativeG < recorded.gCost) {
-                next.parent = current;
+                SearchNode next = new SearchNode(nextKey, p, current);
                 next.gCost = tentativeG;
-                next.hCost = getHeuristic(successor, view);
+                next.hCost = recorded == null ? plan.estimate(nextKey) : recorded.hCost;
+                next.priority = next.gCost + weight * next.hCost;
                 openSet.add(next);
-                bestSeen.put(next.stateKey, next);
+                bestSeen.put(nextKey, next);
+                result.openPeak = Math.max(result.openPeak, openSet.size());
             }
         }
     }
 
-    // No complete path found
-    return null;
+    result.exhausted = budget.isExhausted();
+    result.cancelled = budget.isCancelled();
+    return result;
+}
+
+// Outcome of one weightedPelletSearch pass
+private static class PelletSearchResult {
+    SearchNode goal = null;     // cheapest complete tour found (null if none)
+    SearchNode deepest = null;  // expanded node with the fewest pellets left
+    boolean exhausted = false;  // pass was cut short by the budget
+    boolean cancelled = false;  // ... because the planner thread was interrupted
+    long expanded = 0;
+    long generated = 0;
+    int openPeak = 0;           // largest openSet size (stale duplicates included)
 }
+
+// Inputs of one pellet plan, fixed when it is handed out: the board tables, the ghost risk copy and its
+// own pellet numbering and MST memo. The planner thread reads nothing else of the agent, so the moves
+// made meanwhile cannot change a plan under it. Also the plan's pellet-state heuristic.
+private static class PelletPlan implements PelletStateHeuristic {
+    final PelletVertex start;
+    final MazeGraph graph;
+    final MazeDistanceTable distances;
+    final PelletIndex pellets;
+    final MstHeuristic mst;   // null with PELLET_COUNT
+    final float[] risk;       // ghost risk when the plan was made; null with MAZE_MST
+    final int mstCacheSize;
+
+    PelletPlan(PelletVertex start, MazeGraph graph, MazeDistanceTable distances, float[] risk, int mstCacheSize) {
+        this.start = start;
+        this.graph = graph;
+        this.distances = distances;
+        this.pellets = new PelletIndex(graph, start.getRemainingPelletCoordinates());
+        this.mst = risk == null ? new MstHeuristic(this.pellets, distances, mstCacheSize) : null;
+        this.risk = risk;
+        this.mstCacheSize = mstCacheSize;
+    }
+
+    @Override
+    public float estimate(PelletStateKey key) {
+        if (mst != null) {
+            return mst.estimate(key);
+        }
+        return key.getNumRemaining() + risk[key.getPacmanTile()] * 2f;
+    }
+
+    // Heuristic for one HDA* worker: the MST memo is not thread-safe, so each gets its own
+    PelletStateHeuristic newWorkerHeuristic() {
+        return mst == null ? this : new MstHeuristic(pellets, distances, mstCacheSize);
+    }
+}
+
 // Inner class used for A* search across pellet states
 private static class SearchNode implements Comparable<SearchNode> {
-    final PelletVertex vertex;
-    SearchNode parent;
+    final PelletStateKey stateKey;
+    final int eatenPellet; // pellet eaten to reach this state (NO_PELLET at the root)
+    final SearchNode parent;
     float gCost;
     float hCost;
-    final String stateKey;
+    float priority; // g + weight * h for the pass that queued this node
 
-    SearchNode(PelletVertex vertex) {
-        this.vertex = vertex;
-        this.stateKey = buildStateKey(vertex);
+    SearchNode(PelletStateKey stateKey, int eatenPellet, SearchNode parent) {
+        this.stateKey = stateKey;
+        this.eatenPellet = eatenPellet;
+        this.parent = parent;
     }
 
     float fCost() { return gCost + hCost; }
 
     @Override
     public int compareTo(SearchNode other) {
-        return Float.compare(this.fCost(), other.fCost());
-    }
-
-    // Generate a unique state key (Pacman position + sorted remaining pellets)
-    private static String buildStateKey(PelletVertex v) {
-        StringBuilder sb = new StringBuilder();
-        sb.append(v.getPacmanCoordinate().getXCoordinate())
-          .append(',')
-          .append(v.getPacmanCoordinate().getYCoordinate())
-          .append(':');
-        List<Coordinate> pellets = new ArrayList<>(v.getRemainingPelletCoordinates());
-        pellets.sort(Comparator.comparingInt(Coordinate::getXCoordinate)
-                               .thenComparingInt(Coordinate::getYCoordinate));
-        for (Coordinate p : pellets) {
-            sb.append(p.getXCoordinate()).append(',').append(p.getYCoordinate()).append(';');
-        }
-        return sb.toString();
+        return Float.compare(this.priority, other.priority);
     }
 }
 
-private Path<PelletVertex> buildPath(SearchNode goalNode) {
-    List<SearchNode> chain = new ArrayList<>();
-    for (SearchNode n = goalNode; n != null; n = n.parent) {
-        chain.add(n);
+// Collects the pellets eaten along the search-node chain and materializes the tour
+private Path<PelletVertex> buildPath(SearchNode goalNode, PelletPlan plan) {
+    int depth = 0;
+    for (SearchNode n = goalNode; n.parent != null; n = n.parent) depth++;
+
+    int[] order = new int[depth];
+    for (SearchNode n = goalNode; n.parent != null; n = n.parent) {
+        order[--depth] = n.eatenPellet;
     }
+    return buildPathFromOrder(plan, order);
+}
 
-    Path<PelletVertex> result = null;
-    for (int i = chain.size() - 1; i >= 0; i--) {
-        SearchNode node = chain.get(i);
-        if (result == null) {
-            result = new Path<>(node.vertex);
-        } else {
-            result = new Path<>(node.vertex, node.gCost, result);
-        }
+// Replays the eaten pellets from the start vertex; each Path edge costs the maze distance of its leg
+private Path<PelletVertex> buildPathFromOrder(PelletPlan plan, int[] order) {
+    PelletIndex pellets = plan.pellets;
+    Path<PelletVertex> result = new Path<>(plan.start);
+    PelletVertex vertex = plan.start;
+    int tile = plan.graph.getTileId(plan.start.getPacmanCoordinate());
+
+    for (int p : order) {
+        int next = pellets.getPelletTile(p);
+        vertex = vertex.removePellet(pellets.getPelletCoordinate(p));
+        result = new Path<>(vertex, (float) plan.distances.getDistance(tile, next), result);
+        tile = next;
     }
     return result;
 }
@@ -255,116 +740,144 @@ private Path<PelletVertex> buildPath(SearchNode goalNode) {
 
     @Override
     public Path<Coordinate> graphSearch(final Coordinate start, final Coordinate goal, final GameView game) {
-    // Dijkstra’s search (uniform edge cost = 1).
-    PriorityQueue<NodeRecord> frontier = new PriorityQueue<>(Comparator.comparingDouble(n -> n.cost));
-    Map<Coordinate, Coordinate> parentMap = new HashMap<>();
-    Map<Coordinate, Float> bestCost = new HashMap<>();
-    Set<Coordinate> closed = new HashSet<>();
-
-    frontier.add(new NodeRecord(start, 0f));
-    bestCost.put(start, 0f);
-    parentMap.put(start, null);
-
-    while (!frontier.isEmpty()) {
-        NodeRecord current = frontier.poll();
-        Coordinate here = current.position;
-
-        if (closed.contains(here)) continue;
-        closed.add(here);
-
-        if (here.equals(goal)) break; // reached target
-
-        for (Coordinate next : getOutgoingNeighbors(here, game)) {
-            if (closed.contains(next)) continue;
-
-            float stepCost = 1f + ghostRisk(next); // risk-aware edge cost
-            float newCost = bestCost.get(here) + stepCost;
-
-            if (!bestCost.containsKey(next) || newCost < bestCost.get(next)) {
-                bestCost.put(next, newCost);
-                parentMap.put(next, here);
-                frontier.add(new NodeRecord(next, newCost));
-            }
-        }
+    // Risk-weighted A* on the precomputed tile or junction graph (edge cost = 1 + ghost risk of the entered tile)
+    ensureMazeTables(game);
+    TilePathSearch search = timedTileSearch(tilePathSearch, mazeGraph.getTileId(start), mazeGraph.getTileId(goal));
+    if (search == null) {
+        return null;
     }
 
-    // Reconstruct path from goal back to start.
-    if (!parentMap.containsKey(goal)) return null;
-
-    List<Coordinate> chain = new ArrayList<>();
-    for (Coordinate step = goal; step != null; step = parentMap.get(step)) {
-        chain.add(step);
-    }
-
-    // Convert reversed chain into Path<Coordinate>
+    // Convert the tile sequence into Path<Coordinate>
     Path<Coordinate> path = null;
-    for (int i = chain.size() - 1; i >= 0; i--) {
-        Coordinate c = chain.get(i);
+    for (int i = 0; i < search.getPathLength(); i++) {
+        Coordinate c = mazeGraph.getCoordinate(search.getPathTile(i));
         path = (path == null) ? new Path<>(c) : new Path<>(c, 1f, path);
     }
     return path;
     }
 
-    // Helper inner class to store frontier entries
-    private static class NodeRecord {
-    final Coordinate position;
-    final float cost;
-    NodeRecord(Coordinate position, float cost) {
-        this.position = position;
-        this.cost = cost;
-    }
-}
-
 
     @Override
     public void makePlan(final GameView game) {
     // Clear any old plan
     setPlanToGetToTarget(new Stack<>());
+    ensureMazeTables(game);
 
     Coordinate start  = game.getEntity(getPacmanId()).getCurrentCoordinate();
     Coordinate target = getTargetCoordinate();
 
-    Path<Coordinate> foundPath = graphSearch(start, target, game);
-    if (foundPath == null) {
+    // Same target as last time: D* Lite only repairs what the ghost moves changed
+    TilePathSearch search = timedTileSearch(incrementalReplanning ? replanSearch : tilePathSearch,
+                                            mazeGraph.getTileId(start), mazeGraph.getTileId(target));
+    if (search == null) {
         // no route
         return;
     }
 
-    // Collect destinations from the Path chain
-    List<Coordinate> seq = new ArrayList<>();
-    for (Path<Coordinate> p = foundPath; p != null && p.getDestination() != null; p = p.getParentPath()) {
-        seq.add(p.getDestination());
+    // Build the stack so that the TOP is the first step after start.
+    // Skip tile 0 (start), include tiles 1..end (including goal).
+    Stack<Coordinate> planStack = new Stack<>();
+    for (int i = search.getPathLength() - 1; i >= 1; i--) {
+        planStack.push(mazeGraph.getCoordinate(search.getPathTile(i)));
     }
 
-    // seq is currently [goal, ..., start] with your Path builder -> make it [start, ..., goal]
-    if (!seq.isEmpty()) {
-        java.util.Collections.reverse(seq);
+    setPlanToGetToTarget(planStack);
+}
+
+// Runs one tile query and reports its time and node counts; returns the search holding the path, or null.
+// Far from every ghost the risk is zero, so jump point search answers the uniform-cost query; a risk-free
+// shortest path is also the cheapest risk-weighted one. If the path it finds does pass risk, fall back.
+private TilePathSearch timedTileSearch(TilePathSearch search, int start, int goal) {
+    long startNanos = System.nanoTime();
+    TilePathSearch used = null;
+    if (jumpPointQueries && isClearOfGhosts(start, goal)) {
+        boolean found = jumpPointSearch.search(start, goal, null);
+        telemetry.recordSearch(jumpPointSearch.getNodesExpanded(), jumpPointSearch.getNodesGenerated(),
+                               jumpPointSearch.getOpenPeak());
+        if (found && isRiskFree(jumpPointSearch)) {
+            used = jumpPointSearch;
+        }
+    }
+    if (used == null) {
+        used = search.search(start, goal, ghostRiskField.getRiskArray()) ? search : null;
+        telemetry.recordSearch(search.getNodesExpanded(), search.getNodesGenerated(), search.getOpenPeak());
     }
+    telemetry.recordGraphSearch(System.nanoTime() - startNanos);
+    return used;
+}
 
-    // Build the stack so that the TOP is the first step after start.
-    // Skip seq[0] (start), include seq[1..end] (including goal).
-    Stack<Coordinate> planStack = new Stack<>();
-    for (int i = seq.size() - 1; i >= 1; i--) {
-        planStack.push(seq.get(i));
+// True if every ghost is more than GHOST_RADIUS (Manhattan, a lower bound on maze distance) from the start-goal box
+private boolean isClearOfGhosts(int start, int goal) {
+    if (start == MazeGraph.NO_TILE || goal == MazeGraph.NO_TILE) {
+        return false;
     }
+    Coordinate a = mazeGraph.getCoordinate(start);
+    Coordinate b = mazeGraph.getCoordinate(goal);
+    int minX = Math.min(a.getXCoordinate(), b.getXCoordinate()), maxX = Math.max(a.getXCoordinate(), b.getXCoordinate());
+    int minY = Math.min(a.getYCoordinate(), b.getYCoordinate()), maxY = Math.max(a.getYCoordinate(), b.getYCoordinate());
+    for (int i = 0; i < ghostRiskField.getNumGhosts(); i++) {
+        int tile = ghostRiskField.getGhostTile(i);
+        if (tile == MazeGraph.NO_TILE) {
+            continue;
+        }
+        Coordinate g = mazeGraph.getCoordinate(tile);
+        int dx = Math.max(0, Math.max(minX - g.getXCoordinate(), g.getXCoordinate() - maxX));
+        int dy = Math.max(0, Math.max(minY - g.getYCoordinate(), g.getYCoordinate() - maxY));
+        if (dx + dy <= GHOST_RADIUS) {
+            return false;
+        }
+    }
+    return true;
+}
 
-    setPlanToGetToTarget(planStack);
+private boolean isRiskFree(TilePathSearch search) {
+    for (int i = 1; i < search.getPathLength(); i++) {
+        if (ghostRiskField.getRisk(search.getPathTile(i)) != 0f) {
+            return false;
+        }
+    }
+    return true;
 }
 
 
 
 @Override
 public Action makeMove(final GameView game) {
+    // continuePelletPath calls back into makeMove; only the outermost call is a decision
+    boolean outermost = telemetry.beginDecision(game.getTurnNumber());
+    try {
+        return chooseMove(game);
+    } finally {
+        if (outermost) telemetry.endDecision();
+    }
+}
+
+private Action chooseMove(GameView game) {
     try {
+        ensureMazeTables(game);
         updateGhostDistances(game);
+        if (moveMode == MoveMode.REAL_TIME) {
+            return makeRealTimeMove(game);
+        }
         Coordinate current = game.getEntity(getPacmanId()).getCurrentCoordinate();
         Stack<Coordinate> plan = getPlanToGetToTarget();
 
-        // If we already have a plan, follow it
+        // Ghosts moved the risk under the current plan, or we left it to dodge one: repair it in place
+        boolean offPlan = dodgedLastMove;
+        dodgedLastMove = false;
+        if (getTargetCoordinate() != null && (offPlan
+            || (incrementalReplanning && plan != null && !plan.isEmpty() && replanSearch.hasPendingChanges()))) {
+            makePlan(game);
+            plan = getPlanToGetToTarget();
+        }
+
+        // If we already have a plan, follow it unless a ghost could reach the next tile first
         if (plan != null && !plan.isEmpty()) {
             Coordinate next = plan.pop();
             if (isValidMove(current, next, game)) {
-                return Action.inferFromCoordinates(current, next);
+                Coordinate target = getTargetCoordinate();
+                return safeMove(mazeGraph.getTileId(current), mazeGraph.getTileId(next),
+                                target == null ? MazeGraph.NO_TILE : mazeGraph.getTileId(target));
             } else {
                 return handlePlanFailure(game);
             }
@@ -380,6 +893,7 @@ public Action makeMove(final GameView game) {
 
 // Handles a broken or empty plan by resetting current targets
 private Action handlePlanFailure(GameView game) {
+    telemetry.recordReplan();
     setPlanToGetToTarget(null);
     setTargetCoordinate(null);
     currentTargetVertex = null;
@@ -390,35 +904,183 @@ private Action handlePlanFailure(GameView game) {
 private Action continuePelletPath(GameView game) {
     // Initialize A* search if no pellet path exists
     if (currentPelletPath == null) {
-        currentPelletPath = findPathToEatAllPelletsTheFastest(game);
-        if (currentPelletPath == null) {
-            return Action.values()[getRandom().nextInt(Action.values().length)];
+        Path<PelletVertex> tour = asyncPelletPlanning ? pollPelletPlan(game) : findPathToEatAllPelletsTheFastest(game);
+        if (tour == null) {
+            // Tour not ready (or none exists): head for the nearest pellet meanwhile
+            return asyncPelletPlanning ? moveTowardNearestPellet(game)
+                                       : Action.values()[getRandom().nextInt(Action.values().length)];
         }
+        currentPelletPath = tour;
 
         List<PelletVertex> vertices = convertPelletPathToList(currentPelletPath);
         pelletPathIterator = vertices.iterator();
         if (pelletPathIterator.hasNext()) pelletPathIterator.next(); // skip start
     }
 
-    if (pelletPathIterator != null && pelletPathIterator.hasNext()) {
+    while (pelletPathIterator != null && pelletPathIterator.hasNext()) {
         currentTargetVertex = pelletPathIterator.next();
         Coordinate target = currentTargetVertex.getPacmanCoordinate();
+        if (game.getCell(target).getCellState() != CellState.PELLET) continue; // eaten while the tour was planned
         setTargetCoordinate(target);
         makePlan(game);
         return makeMove(game);
-    } else {
-        // Finished all pellets
-        resetPelletPathState();
-        return Action.values()[getRandom().nextInt(Action.values().length)];
+    }
+
+    // Finished all pellets
+    resetPelletPathState();
+    return Action.values()[getRandom().nextInt(Action.values().length)];
+}
+
+/**
+ * Hands the pellet tour to the planner thread (snapshotting the pellets first) and waits up
+ * to planWaitBudgetMs for it. Returns null while the tour is still being computed.
+ */
+private Path<PelletVertex> pollPelletPlan(GameView game) {
+    if (pendingPelletPath == null) {
+        // Everything the task reads is captured here; a table still being built is queued ahead of
+        // it on the same thread, so get() does not wait
+        PelletVertex snapshot = new PelletVertex(game);
+        MazeGraph graph = mazeGraph;
+        MazeDistanceTable table = mazeDistances;
+        Future<MazeDistanceTable> building = pendingDistances;
+        float[] risk = riskSnapshot();
+        int cacheSize = mstCacheSize;
+        pendingPelletPath = getPlannerExecutor().submit(() -> timedPelletTour(
+            new PelletPlan(snapshot, graph, building == null ? table : building.get(), risk, cacheSize)));
+    }
+
+    try {
+        Path<PelletVertex> tour = pendingPelletPath.get(planWaitBudgetMs, TimeUnit.MILLISECONDS);
+        pendingPelletPath = null;
+        return tour;
+    } catch (TimeoutException e) {
+        return null;
+    } catch (ExecutionException e) {
+        pendingPelletPath = null; // planner failed: the next call starts over
+        return null;
+    } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return null;
     }
 }
 
-// Converts a Path<PelletVertex> into an ordered list
+// Interim move while the tour is planned: one step of a risk-weighted path to the closest pellet
+private Action moveTowardNearestPellet(GameView game) {
+    Coordinate current = game.getEntity(getPacmanId()).getCurrentCoordinate();
+    int nearestTile = findNearestPellet(game, mazeGraph.getTileId(current));
+    Coordinate nearest = nearestTile == MazeGraph.NO_TILE ? null : mazeGraph.getCoordinate(nearestTile);
+
+    Stack<Coordinate> plan = null;
+    if (nearest != null) {
+        currentTargetVertex = null;
+        setTargetCoordinate(nearest);
+        makePlan(game);
+        plan = getPlanToGetToTarget();
+    }
+    try {
+        if (plan != null && !plan.isEmpty()) return safeMove(mazeGraph.getTileId(current), mazeGraph.getTileId(plan.pop()), nearestTile);
+    } catch (Exception e) {
+        // fall through to a random move
+    }
+    return Action.values()[getRandom().nextInt(Action.values().length)];
+}
+
+// Closest remaining pellet by maze distance, or NO_TILE if none is reachable
+private int findNearestPellet(GameView game, int from) {
+    int nearest = MazeGraph.NO_TILE;
+    int best = Integer.MAX_VALUE;
+    for (Coordinate pellet : new PelletVertex(game).getRemainingPelletCoordinates()) {
+        int tile = mazeGraph.getTileId(pellet);
+        int d = mazeDistances.getDistance(from, tile);
+        if (d != MazeDistanceTable.UNREACHABLE && d < best) {
+            best = d;
+            nearest = tile;
+        }
+    }
+    return nearest;
+}
+
+/**
+ * REAL_TIME mode: one RTAA* step toward the nearest pellet. The target is only re-chosen
+ * once it has been eaten, so a move costs one bounded lookahead plus an occasional scan.
+ */
+private Action makeRealTimeMove(GameView game) {
+    int here = mazeGraph.getTileId(game.getEntity(getPacmanId()).getCurrentCoordinate());
+    if (realTimeTarget == MazeGraph.NO_TILE || realTimeTarget == here
+        || game.getCell(mazeGraph.getCoordinate(realTimeTarget)).getCellState() != CellState.PELLET) {
+        realTimeTarget = findNearestPellet(game, here);
+    }
+
+    int next = realTimeSearch.step(here, realTimeTarget, ghostRiskField.getRiskArray());
+    telemetry.recordSearch(realTimeSearch.getNodesExpanded(), realTimeSearch.getNodesGenerated(), realTimeSearch.getOpenPeak());
+    return safeMove(here, next, realTimeTarget);
+}
+
+/**
+ * Move onto the planned next tile, unless a ghost could catch Pacman there within
+ * DODGE_LOOKAHEAD ticks; then onto the neighbor that stays out of reach longest (closest to
+ * the target on ties). Leaving the plan makes the next move replan from where we end up.
+ */
+private Action safeMove(int here, int planned, int target) {
+    int step = planned;
+    int bestDepth = planned == MazeGraph.NO_TILE ? -1 : safeDepth(planned, 1);
+    if (bestDepth < DODGE_LOOKAHEAD) {
+        int bestDist = distanceOrMax(planned, target);
+        for (int d = 0; d < MazeGraph.DIRECTIONS.length; d++) {
+            int nb = mazeGraph.getNeighbor(here, d);
+            if (nb == MazeGraph.NO_TILE || nb == planned) {
+                continue;
+            }
+            int depth = safeDepth(nb, 1);
+            int dist = distanceOrMax(nb, target);
+            if (depth > bestDepth || (depth == bestDepth && dist < bestDist)) {
+                step = nb;
+                bestDepth = depth;
+                bestDist = dist;
+            }
+        }
+        dodgedLastMove = step != planned;
+    }
+
+    for (int d = 0; step != MazeGraph.NO_TILE && d < MazeGraph.DIRECTIONS.length; d++) {
+        if (mazeGraph.getNeighbor(here, d) == step) return MazeGraph.DIRECTIONS[d];
+    }
+    return Action.values()[getRandom().nextInt(Action.values().length)];
+}
+
+// Last tick (up to DODGE_LOOKAHEAD) that some walk entering tile at tick t keeps out of every ghost's reach
+private int safeDepth(int tile, int t) {
+    if (!ghostReachability.isSafe(tile, t)) {
+        return t - 1;
+    }
+    if (t >= DODGE_LOOKAHEAD) {
+        return t;
+    }
+    int best = t;
+    for (int d = 0; d < MazeGraph.DIRECTIONS.length && best < DODGE_LOOKAHEAD; d++) {
+        int nb = mazeGraph.getNeighbor(tile, d);
+        if (nb != MazeGraph.NO_TILE) {
+            best = Math.max(best, safeDepth(nb, t + 1));
+        }
+    }
+    return best;
+}
+
+private int distanceOrMax(int tile, int target) {
+    if (tile == MazeGraph.NO_TILE || target == MazeGraph.NO_TILE) {
+        return Integer.MAX_VALUE;
+    }
+    int d = mazeDistances.getDistance(target, tile); // target's row, shared by every candidate step
+    return d == MazeDistanceTable.UNREACHABLE ? Integer.MAX_VALUE : d;
+}
+
+// Converts a Path<PelletVertex> into an ordered list (start vertex first)
 private List<PelletVertex> convertPelletPathToList(Path<PelletVertex> path) {
     List<PelletVertex> result = new ArrayList<>();
     for (Path<PelletVertex> p = path; p != null && p.getDestination() != null; p = p.getParentPath()) {
         result.add(p.getDestination());
     }
+    java.util.Collections.reverse(result); // path chain runs goal -> start
     return result;
 }
 
@@ -442,55 +1104,22 @@ private boolean isValidMove(Coordinate from, Coordinate to, GameView game) {
     }
 }
 
-/** Rebuilds a BFS distance field from all ghosts so nearby tiles look dangerous. */
+/** Refreshes the ghost distance field around ghosts that moved since the last call. */
 private void updateGhostDistances(GameView game) {
-    ghostDistances.clear();
-
-    // Collect all ghost coordinates using reflection (GameView doesn’t expose directly)
-    List<Coordinate> ghosts = new ArrayList<>();
-    try {
-        java.lang.reflect.Method getGhostIdsMethod = game.getClass().getMethod("getGhostIds");
-        Iterable<?> ghostIds = (Iterable<?>) getGhostIdsMethod.invoke(game);
-
-        for (Object id : ghostIds) {
-            java.lang.reflect.Method getEntityMethod = game.getClass().getMethod("getEntity", int.class);
-            Object entity = getEntityMethod.invoke(game, (int) id);
-
-            java.lang.reflect.Method getCoordMethod = entity.getClass().getMethod("getCurrentCoordinate");
-            Object coord = getCoordMethod.invoke(entity);
-
-            if (coord instanceof Coordinate) {
-                ghosts.add((Coordinate) coord);
-            }
-        }
-    } catch (Exception ignored) { }
-
-    // Multi-source BFS expansion around ghosts
-    ArrayDeque<Coordinate> q = new ArrayDeque<>();
-    for (Coordinate g : ghosts) {
-        ghostDistances.put(g, 0);
-        q.add(g);
-    }
-
-    while (!q.isEmpty()) {
-        Coordinate c = q.poll();
-        int base = ghostDistances.get(c);
-        if (base >= GHOST_RADIUS) continue;
-        for (Coordinate nb : getOutgoingNeighbors(c, game)) {
-            if (!ghostDistances.containsKey(nb)) {
-                ghostDistances.put(nb, base + 1);
-                q.add(nb);
-            }
-        }
+    ensureMazeTables(game);
+    long startNanos = System.nanoTime();
+    ghostRiskField.update(game);
+    for (int i = 0; i < ghostRiskField.getTilesChanged(); i++) {
+        replanSearch.riskChanged(ghostRiskField.getChangedTile(i));
     }
+    ghostReachability.update(ghostRiskField);
+    telemetry.recordGhostUpdate(System.nanoTime() - startNanos);
 }
 
 /** Returns an additional cost penalty for being close to a ghost. */
 private float ghostRisk(Coordinate c) {
-    Integer d = ghostDistances.get(c);
-    if (d == null || d > GHOST_RADIUS) return 0f;
-    float t = (GHOST_RADIUS - d) / (float) GHOST_RADIUS; // in (0,1]
-    return GHOST_RISK_WEIGHT * t * t; // quadratic falloff
+    int tile = ghostRiskField == null ? MazeGraph.NO_TILE : mazeGraph.getTileId(c);
+    return tile == MazeGraph.NO_TILE ? 0f : ghostRiskField.getRisk(tile);
 }
 
 
@@ -499,6 +1128,32 @@ private float ghostRisk(Coordinate c) {
     @Override
     public void afterGameEnds(final GameView game)
     {
+        telemetry.endGame(game.getTurnNumber(), new PelletVertex(game).getRemainingPelletCoordinates().size());
 
+        // next game may be played on a different board
+        if (pendingPelletPath != null) {
+            pendingPelletPath.cancel(true); // interrupts the planner, which gives up without recording anything
+            pendingPelletPath = null;
+        }
+        if (pendingDistances != null) {
+            pendingDistances.cancel(true);
+            pendingDistances = null;
+        }
+        if (plannerExecutor != null) {
+            plannerExecutor.shutdownNow(); // don't leave an idle thread behind per finished game
+            plannerExecutor = null;
+        }
+        resetPelletPathState();
+        mazeGraph = null;
+        mazeDistances = null;
+        tilePathSearch = null;
+        replanSearch = null;
+        realTimeSearch = null;
+        jumpPointSearch = null;
+        ghostRiskField = null;
+        ghostReachability = null;
+        dodgedLastMove = false;
+        pelletIndex = null;
+        mstHeuristic = null;
     }
 }
\ No newline at end of file
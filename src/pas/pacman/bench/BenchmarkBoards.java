@@ -0,0 +1,222 @@
+package src.pas.pacman.bench;
+
+
+// SYSTEM IMPORTS
+import java.lang.reflect.Field;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+
+// JAVA PROJECT IMPORTS
+import edu.bu.pas.pacman.game.DefaultBoard.Cell;
+import edu.bu.pas.pacman.game.DefaultBoard.CellState;
+import edu.bu.pas.pacman.game.Game;
+import edu.bu.pas.pacman.game.Game.GameView;
+import edu.bu.pas.pacman.game.entity.Entity;
+import edu.bu.pas.pacman.game.entity.Ghost;
+import edu.bu.pas.pacman.game.generators.BoardGenerator;
+import edu.bu.pas.pacman.game.generators.TileGroup;
+import edu.bu.pas.pacman.game.generators.TileGroup.TileGroupType;
+import edu.bu.pas.pacman.utils.Coordinate;
+
+import src.pas.pacman.agents.PacmanAgent;
+
+
+/**
+ * Builds GameViews of any size for the benchmarks, from BoardGenerator tile groups.
+ *
+ * Game always plays on the default board, so the view of a default game gets its size and
+ * cells swapped for a generated maze. Tile groups are collapsed in row order, keeping only
+ * types whose corridors line up with the groups above and to the left and never leave the
+ * board (picked in enum order so a seed always gives the same board), then mirrored left to right like the generator does. (The library's
+ * waveformCollapse() only prunes the border and leaves every type unset.) Tiles outside the
+ * largest connected region become walls, so every pellet can be reached. Same arguments,
+ * same board.
+ */
+public class BenchmarkBoards
+    extends Object
+{
+
+    private static final Coordinate DEFAULT_PACMAN_START = new Coordinate(3, 5);
+    private static final Coordinate DEFAULT_GHOST_PEN = new Coordinate(5, 1);
+    private static final int GHOST_CHASE_RADIUS = 2;
+
+    /** Parses a "ROWSxCOLS" benchmark parameter, e.g. "24x36". */
+    public static int[] parseSize(final String rowsByCols)
+    {
+        String[] parts = rowsByCols.toLowerCase().split("x");
+        if (parts.length != 2) throw new IllegalArgumentException("board size must look like 24x36: " + rowsByCols);
+        return new int[]{Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim())};
+    }
+
+    /** Agent for the benchmarks: synchronous planning and no on-disk distance cache, whatever pacman.distanceCache says. */
+    public static PacmanAgent newAgent(final GameView view)
+    {
+        PacmanAgent agent = new PacmanAgent(view.getPacmanId(), view.getPacmanId(), GHOST_CHASE_RADIUS);
+        agent.setAsyncPelletPlanning(false);
+        agent.setDistanceCacheDirectory(null);
+        return agent;
+    }
+
+    /** Walkable tiles of a view, in scan order. */
+    public static List<Coordinate> walkableTiles(final GameView view)
+    {
+        List<Coordinate> tiles = new ArrayList<>();
+        for (int x = 0; x < view.getXBoardDimension(); x++) {
+            for (int y = 0; y < view.getYBoardDimension(); y++) {
+                Coordinate c = new Coordinate(x, y);
+                if (view.getCell(c).getCellState() != CellState.WALL) tiles.add(c);
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * A view of a rows x cols maze (rows a multiple of 3, cols a multiple of 6) with up to
+     * numPellets pellets, Pacman and numGhosts ghosts on random walkable tiles.
+     */
+    public static GameView generate(final int rows,
+                                    final int cols,
+                                    final int numPellets,
+                                    final int numGhosts,
+                                    final long seed)
+    {
+        if (rows % 3 != 0 || cols % 6 != 0) {
+            throw new IllegalArgumentException("rows must be a multiple of 3 and cols of 6, got " + rows + "x" + cols);
+        }
+        Random random = new Random(seed);
+        boolean[][] open = carve(new BoardGenerator(rows, cols), rows, cols, random); // [x][y]
+        List<Coordinate> region = largestRegion(open, cols, rows);
+        if (region.size() < 2 + numGhosts) {
+            throw new IllegalStateException("generated board has only " + region.size() + " connected tiles");
+        }
+        Collections.shuffle(region, random);
+
+        GameView view = new GameView(new Game(DEFAULT_PACMAN_START, DEFAULT_GHOST_PEN, numGhosts, 1, seed));
+        Cell[][] cells = new Cell[rows][cols]; // GameView indexes cells[y][x]
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < cols; x++) {
+                cells[y][x] = new Cell(CellState.WALL, new Coordinate(x, y));
+            }
+        }
+        for (Coordinate c : region) {
+            cells[c.getYCoordinate()][c.getXCoordinate()].setCellState(CellState.EMPTY);
+        }
+
+        // region is shuffled: Pacman first, then the ghosts, then the pellets
+        int next = 0;
+        view.getEntity(view.getPacmanId()).setCurrentCoordinate(region.get(next++));
+        for (int id = 0; ; id++) {
+            Entity e = view.getEntity(id);
+            if (e == null) {
+                if (id > view.getPacmanId() + numGhosts) break;
+                continue;
+            }
+            if (e instanceof Ghost) e.setCurrentCoordinate(region.get(next++));
+        }
+        for (int p = 0; p < numPellets && next < region.size(); p++) {
+            Coordinate c = region.get(next++);
+            cells[c.getYCoordinate()][c.getXCoordinate()].setCellState(CellState.PELLET);
+        }
+
+        setField(view, "maxX", cols);
+        setField(view, "maxY", rows);
+        setField(view, "cells", cells);
+        return view;
+    }
+
+    // Collapses every unmirrored tile group and renders the mirrored maze as open[x][y]
+    private static boolean[][] carve(final BoardGenerator generator, final int rows, final int cols, final Random random)
+    {
+        TileGroup[][] groups = generator.getUnmirroredTileGroups();
+        int groupRows = groups.length;
+        int groupCols = groups[0].length;
+        for (int r = 0; r < groupRows; r++) {
+            for (int c = 0; c < groupCols; c++) {
+                boolean north = r > 0 && south(groups[r - 1][c].getType());
+                boolean west = c > 0 && east(groups[r][c - 1].getType());
+                boolean lastRow = r == groupRows - 1;
+
+                Set<TileGroupType> rejected = EnumSet.noneOf(TileGroupType.class);
+                for (TileGroupType t : groups[r][c].getPossibleTypes()) {
+                    if (north(t) != north || west(t) != west || (lastRow && south(t))) rejected.add(t);
+                }
+                groups[r][c].removePossibleTypes(rejected);
+                // EMPTY splits the maze; only use it when it is the only fit
+                if (groups[r][c].getPossibleTypes().size() > 1) groups[r][c].removePossibleType(TileGroupType.EMPTY);
+
+                // pick in enum order: setRandomType() draws from a HashSet, whose order changes between runs
+                List<TileGroupType> fits = new ArrayList<>(EnumSet.copyOf(groups[r][c].getPossibleTypes()));
+                groups[r][c].setType(fits.get(random.nextInt(fits.size())));
+            }
+        }
+
+        boolean[][] open = new boolean[cols][rows];
+        for (int r = 0; r < groupRows; r++) {
+            for (int c = 0; c < groupCols; c++) {
+                boolean[][] contents = groups[r][c].getType().getContents();
+                for (int i = 0; i < 3; i++) {
+                    for (int j = 0; j < 3; j++) {
+                        int x = 3 * c + j;
+                        int y = 3 * r + i;
+                        open[x][y] = contents[i][j];
+                        open[cols - 1 - x][y] = contents[i][j];
+                    }
+                }
+            }
+        }
+        return open;
+    }
+
+    private static boolean north(final TileGroupType t) { return t.getContents()[0][1]; }
+    private static boolean south(final TileGroupType t) { return t.getContents()[2][1]; }
+    private static boolean west(final TileGroupType t) { return t.getContents()[1][0]; }
+    private static boolean east(final TileGroupType t) { return t.getContents()[1][2]; }
+
+    private static List<Coordinate> largestRegion(final boolean[][] open, final int width, final int height)
+    {
+        boolean[][] seen = new boolean[width][height];
+        List<Coordinate> best = new ArrayList<>();
+        ArrayDeque<Coordinate> queue = new ArrayDeque<>();
+        for (int sx = 0; sx < width; sx++) {
+            for (int sy = 0; sy < height; sy++) {
+                if (!open[sx][sy] || seen[sx][sy]) continue;
+
+                List<Coordinate> region = new ArrayList<>();
+                seen[sx][sy] = true;
+                queue.add(new Coordinate(sx, sy));
+                while (!queue.isEmpty()) {
+                    Coordinate c = queue.poll();
+                    region.add(c);
+                    int x = c.getXCoordinate();
+                    int y = c.getYCoordinate();
+                    int[][] steps = {{x, y - 1}, {x, y + 1}, {x + 1, y}, {x - 1, y}};
+                    for (int[] s : steps) {
+                        if (s[0] < 0 || s[1] < 0 || s[0] >= width || s[1] >= height) continue;
+                        if (!open[s[0]][s[1]] || seen[s[0]][s[1]]) continue;
+                        seen[s[0]][s[1]] = true;
+                        queue.add(new Coordinate(s[0], s[1]));
+                    }
+                }
+                if (region.size() > best.size()) best = region;
+            }
+        }
+        return best;
+    }
+
+    private static void setField(final GameView view, final String name, final Object value)
+    {
+        try {
+            Field f = GameView.class.getDeclaredField(name);
+            f.setAccessible(true);
+            f.set(view, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("cannot resize GameView." + name, e);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package src.pas.pacman.bench;
+
+
+// SYSTEM IMPORTS
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+// JAVA PROJECT IMPORTS
+import edu.bu.pas.pacman.game.Action;
+import edu.bu.pas.pacman.game.Game.GameView;
+import edu.bu.pas.pacman.game.entity.Entity;
+import edu.bu.pas.pacman.game.entity.Ghost;
+import edu.bu.pas.pacman.utils.Coordinate;
+
+import src.pas.pacman.agents.PacmanAgent;
+import src.pas.pacman.graph.MazeGraph;
+import src.pas.pacman.risk.GhostReachability;
+import src.pas.pacman.risk.GhostRiskField;
+
+
+/**
+ * Throughput of the two field updates inside PacmanAgent's per-move ghost update,
+ * GhostRiskField.update and GhostReachability.update, sized with PacmanAgent's own constants.
+ * The agent's table check and D* Lite change reporting around them are not timed. Every ghost
+ * follows its own precomputed random walk, one tile per call, as it would between two
+ * makeMove calls.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GhostDistanceBenchmark
+    extends Object
+{
+
+    private static final int WALK_LENGTH = 512;
+
+    @Param({"12x18", "24x36", "48x72", "96x144"})
+    public String size;
+
+    @Param({"1", "4", "8"})
+    public int numGhosts;
+
+    @Param({"1"})
+    public long seed;
+
+    private GameView view;
+    private GhostRiskField riskField;
+    private GhostReachability reachability;
+    private Entity[] ghosts;
+    private Coordinate[][] walks; // [ghost][step]
+    private int step = 0;
+
+    @Setup
+    public void setup()
+    {
+        int[] rowsCols = BenchmarkBoards.parseSize(this.size);
+        this.view = BenchmarkBoards.generate(rowsCols[0], rowsCols[1], 0, this.numGhosts, this.seed);
+        MazeGraph graph = new MazeGraph(this.view);
+        this.riskField = new GhostRiskField(graph, PacmanAgent.GHOST_RADIUS, PacmanAgent.GHOST_RISK_WEIGHT);
+        this.reachability = new GhostReachability(graph, this.view, PacmanAgent.DODGE_LOOKAHEAD);
+
+        List<Entity> found = new ArrayList<>();
+        for (int id = 0; id <= this.view.getPacmanId() + this.numGhosts; id++) {
+            Entity e = this.view.getEntity(id);
+            if (e instanceof Ghost) found.add(e);
+        }
+        this.ghosts = found.toArray(new Entity[0]);
+
+        Random random = new Random(this.seed);
+        this.walks = new Coordinate[this.ghosts.length][WALK_LENGTH];
+        for (int g = 0; g < this.ghosts.length; g++) {
+            Coordinate here = this.ghosts[g].getCurrentCoordinate();
+            for (int s = 0; s < WALK_LENGTH; s++) {
+                here = this.randomStep(here, random);
+                this.walks[g][s] = here;
+            }
+        }
+        this.riskField.update(this.view); // the first field
+        this.reachability.update(this.riskField);
+    }
+
+    // One legal ghost move from c, or c itself at a dead end with nowhere else to go
+    private Coordinate randomStep(final Coordinate c, final Random random)
+    {
+        List<Coordinate> options = new ArrayList<>(4);
+        for (Action a : new Action[]{Action.NORTH, Action.SOUTH, Action.EAST, Action.WEST}) {
+            if (this.view.isLegalGhostMove(c, a)) options.add(a.apply(c));
+        }
+        return options.isEmpty() ? c : options.get(random.nextInt(options.size()));
+    }
+
+    @Benchmark
+    public void riskFieldAndReachabilityUpdate()
+    {
+        int s = this.step;
+        this.step = (s + 1) % WALK_LENGTH;
+        for (int g = 0; g < this.ghosts.length; g++) {
+            this.ghosts[g].setCurrentCoordinate(this.walks[g][s]);
+        }
+        this.riskField.update(this.view);
+        this.reachability.update(this.riskField);
+    }
+}
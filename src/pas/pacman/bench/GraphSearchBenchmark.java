@@ -0,0 +1,97 @@
+package src.pas.pacman.bench;
+
+
+// SYSTEM IMPORTS
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+// JAVA PROJECT IMPORTS
+import edu.bu.pas.pacman.game.Game.GameView;
+import edu.bu.pas.pacman.graph.Path;
+import edu.bu.pas.pacman.utils.Coordinate;
+
+import src.pas.pacman.agents.PacmanAgent;
+import src.pas.pacman.agents.PacmanAgent.TileSearch;
+
+
+/**
+ * Throughput of PacmanAgent.graphSearch between random tile pairs, with ghost risk in place.
+ * The maze tables are built in setup, so this times the search and the Path it returns.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphSearchBenchmark
+    extends Object
+{
+
+    private static final int NUM_QUERIES = 256;
+
+    @Param({"12x18", "24x36", "48x72", "96x144"})
+    public String size;
+
+    @Param({"GRID", "JUNCTION_GRAPH"})
+    public String tileSearch;
+
+    @Param({"false", "true"})
+    public boolean jumpPointQueries;
+
+    @Param({"2"})
+    public int numGhosts;
+
+    @Param({"1"})
+    public long seed;
+
+    private GameView view;
+    private PacmanAgent agent;
+    private Coordinate[] starts;
+    private Coordinate[] goals;
+    private int next = 0;
+
+    @Setup
+    public void setup()
+    {
+        int[] rowsCols = BenchmarkBoards.parseSize(this.size);
+        this.view = BenchmarkBoards.generate(rowsCols[0], rowsCols[1], 0, this.numGhosts, this.seed);
+        this.agent = BenchmarkBoards.newAgent(this.view);
+        this.agent.setTileSearch(TileSearch.valueOf(this.tileSearch));
+        this.agent.setJumpPointQueries(this.jumpPointQueries);
+        this.agent.makeMove(this.view); // builds the tables and the risk field
+
+        List<Coordinate> tiles = BenchmarkBoards.walkableTiles(this.view);
+        Random random = new Random(this.seed);
+        this.starts = new Coordinate[NUM_QUERIES];
+        this.goals = new Coordinate[NUM_QUERIES];
+        for (int i = 0; i < NUM_QUERIES; i++) {
+            Collections.shuffle(tiles, random);
+            this.starts[i] = tiles.get(0);
+            this.goals[i] = tiles.get(1);
+        }
+    }
+
+    @Benchmark
+    public Path<Coordinate> graphSearch()
+    {
+        int i = this.next;
+        this.next = (i + 1) % NUM_QUERIES;
+        return this.agent.graphSearch(this.starts[i], this.goals[i], this.view);
+    }
+}
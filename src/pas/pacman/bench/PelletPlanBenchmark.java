@@ -0,0 +1,114 @@
+package src.pas.pacman.bench;
+
+
+// SYSTEM IMPORTS
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+// JAVA PROJECT IMPORTS
+import edu.bu.pas.pacman.game.Game.GameView;
+import edu.bu.pas.pacman.graph.Path;
+import edu.bu.pas.pacman.graph.PelletGraph.PelletVertex;
+import edu.bu.pas.pacman.utils.Coordinate;
+
+import src.pas.pacman.agents.PacmanAgent;
+import src.pas.pacman.agents.PacmanAgent.PelletPlanner;
+
+
+/**
+ * Throughput of the pellet-level planner: findPathToEatAllPelletsTheFastest from the full
+ * board, and getHeuristic on random subsets of its pellets.
+ *
+ * Every findPathToEatAllPelletsTheFastest call renumbers the pellets and starts with an empty
+ * MST memo, so repeated calls do the same work. getHeuristic runs on a second agent whose memo
+ * holds nothing, so every call computes the MST of its subset.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PelletPlanBenchmark
+    extends Object
+{
+
+    private static final int NUM_STATES = 256;
+
+    @Param({"24x36", "48x72", "96x144"})
+    public String size;
+
+    @Param({"8", "16", "24"})
+    public int numPellets; // exact planners can take minutes per call past ~30 pellets
+
+    @Param({"ASTAR", "LOCAL_SEARCH"})
+    public String planner;
+
+    @Param({"18"})
+    public int heldKarpThreshold; // 0 sends every pellet count to the planner
+
+    @Param({"1"})
+    public long seed;
+
+    private GameView view;
+    private PacmanAgent agent;
+    private PacmanAgent heuristicAgent;
+    private PelletVertex[] states;
+    private int next = 0;
+
+    @Setup
+    public void setup()
+    {
+        int[] rowsCols = BenchmarkBoards.parseSize(this.size);
+        this.view = BenchmarkBoards.generate(rowsCols[0], rowsCols[1], this.numPellets, 0, this.seed);
+        this.agent = BenchmarkBoards.newAgent(this.view);
+        this.agent.setPelletPlanner(PelletPlanner.valueOf(this.planner));
+        this.agent.setHeldKarpThreshold(this.heldKarpThreshold);
+        this.heuristicAgent = BenchmarkBoards.newAgent(this.view);
+        this.heuristicAgent.setMstCacheSize(0);
+
+        // states a pellet search would visit: any subset of the pellets still left
+        PelletVertex root = new PelletVertex(this.view);
+        List<Coordinate> pellets = new ArrayList<>(root.getRemainingPelletCoordinates());
+        Random random = new Random(this.seed);
+        this.states = new PelletVertex[NUM_STATES];
+        for (int i = 0; i < NUM_STATES; i++) {
+            PelletVertex state = root;
+            for (Coordinate p : pellets) {
+                if (random.nextBoolean()) state = state.removePellet(p);
+            }
+            this.states[i] = state;
+        }
+        this.agent.findPathToEatAllPelletsTheFastest(this.view); // builds the maze tables
+        this.heuristicAgent.getHeuristic(root, this.view);      // builds the tables and numbers the pellets
+    }
+
+    @Benchmark
+    public Path<PelletVertex> findPathToEatAllPelletsTheFastest()
+    {
+        return this.agent.findPathToEatAllPelletsTheFastest(this.view);
+    }
+
+    @Benchmark
+    public float getHeuristic()
+    {
+        int i = this.next;
+        this.next = (i + 1) % NUM_STATES;
+        return this.heuristicAgent.getHeuristic(this.states[i], this.view);
+    }
+}
@@ -0,0 +1,120 @@
+package src.pas.pacman.bench;
+
+
+// SYSTEM IMPORTS
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.Namespace;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * Runs the Pacman benchmarks with the gc profiler, writes every result to a CSV file, and
+ * prints one scaling curve per benchmark: score and bytes allocated per operation against
+ * board size, for each combination of the other parameters.
+ *
+ * JMH and its annotation processor are not in lib/, so these sources are listed in
+ * pacman-bench.srcs and built separately, e.g. with jmh-core and jmh-generator-annprocess in jmh/:
+ *
+ * javac -d bench -cp "lib/*:jmh/*" $(cat pacman.srcs pacman-bench.srcs)
+ * java -cp "lib/*:jmh/*:bench" src.pas.pacman.bench.RunBenchmarks -i GraphSearch -o graph.csv
+ */
+public class RunBenchmarks
+    extends Object
+{
+
+    private static final String SIZE_PARAM = "size";
+
+    public static void main(final String[] args) throws Exception
+    {
+        ArgumentParser parser = ArgumentParsers.newFor("RunBenchmarks").build()
+            .defaultHelp(true)
+            .description("Runs the Pacman search benchmarks and prints how they scale with board size");
+        parser.addArgument("-i", "--include").type(String.class).setDefault("src.pas.pacman.bench.")
+            .help("regex of the benchmarks to run");
+        parser.addArgument("-o", "--output").type(String.class).setDefault("pacman-bench.csv")
+            .help("CSV file every result is written to");
+        parser.addArgument("-p", "--param").type(String.class).nargs("*").setDefault(new ArrayList<String>())
+            .help("parameter overrides as name=v1,v2 (e.g. size=24x36,96x144)");
+        parser.addArgument("-f", "--forks").type(Integer.class).setDefault(1)
+            .help("forked JVMs per benchmark");
+        parser.addArgument("--noGc").action(Arguments.storeTrue())
+            .help("skip the gc profiler (allocation rate)");
+        Namespace ns = parser.parseArgsOrFail(args);
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+            .include(ns.getString("include"))
+            .forks(ns.getInt("forks"))
+            .resultFormat(ResultFormatType.CSV)
+            .result(ns.getString("output"));
+        if (!ns.getBoolean("noGc")) options = options.addProfiler(GCProfiler.class);
+        for (Object override : ns.getList("param")) {
+            String[] nameValues = override.toString().split("=", 2);
+            if (nameValues.length != 2) throw new IllegalArgumentException("expected name=v1,v2: " + override);
+            options = options.param(nameValues[0], nameValues[1].split(","));
+        }
+
+        Collection<RunResult> results = new Runner(options.build()).run();
+        printScalingCurves(results);
+    }
+
+    // Groups results by benchmark and every parameter except size, and lists each group by board area
+    private static void printScalingCurves(final Collection<RunResult> results)
+    {
+        Map<String, List<RunResult>> curves = new TreeMap<>();
+        for (RunResult r : results) {
+            BenchmarkParams params = r.getParams();
+            StringBuilder key = new StringBuilder(params.getBenchmark());
+            for (String name : params.getParamsKeys()) {
+                if (!name.equals(SIZE_PARAM)) key.append(' ').append(name).append('=').append(params.getParam(name));
+            }
+            curves.computeIfAbsent(key.toString(), k -> new ArrayList<>()).add(r);
+        }
+
+        for (Map.Entry<String, List<RunResult>> curve : curves.entrySet()) {
+            List<RunResult> points = curve.getValue();
+            points.sort(Comparator.comparingInt(RunBenchmarks::boardArea));
+            System.out.println();
+            System.out.println(curve.getKey());
+            System.out.printf("  %-10s %14s %-10s %16s%n", "size", "score", "unit", "alloc B/op");
+            for (RunResult r : points) {
+                Result primary = r.getPrimaryResult();
+                System.out.printf("  %-10s %14.2f %-10s %16s%n", r.getParams().getParam(SIZE_PARAM),
+                                  primary.getScore(), primary.getScoreUnit(), allocatedPerOp(r));
+            }
+        }
+    }
+
+    private static int boardArea(final RunResult r)
+    {
+        String size = r.getParams().getParam(SIZE_PARAM);
+        if (size == null) return 0;
+        int[] rowsCols = BenchmarkBoards.parseSize(size);
+        return rowsCols[0] * rowsCols[1];
+    }
+
+    // gc.alloc.rate.norm; older JMH versions prefix secondary result names with a middle dot
+    private static String allocatedPerOp(final RunResult r)
+    {
+        for (Map.Entry<String, Result> e : r.getSecondaryResults().entrySet()) {
+            if (e.getKey().endsWith("gc.alloc.rate.norm")) return String.format("%.1f", e.getValue().getScore());
+        }
+        return "-";
+    }
+}
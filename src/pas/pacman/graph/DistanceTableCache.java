@@ -0,0 +1,148 @@
+package src.pas.pacman.graph;
+
+
+// SYSTEM IMPORTS
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+// JAVA PROJECT IMPORTS
+
+
+/**
+ * On-disk cache of MazeDistanceTables, one file per wall layout.
+ *
+ * Files are named after MazeGraph.getLayoutHash() and mapped read-only on later games, so a
+ * repeated board skips the all-pairs BFS entirely. A file is only used if its header and full
+ * layout signature match the graph, which makes hash collisions harmless. New files are
+ * written to a temporary name and moved into place, so concurrent games never map a half
+ * written table. Any I/O problem just means the table is computed in memory as before.
+ * Boards over MazeDistanceTable.MAX_DENSE_TILES tiles are never cached: their tables keep
+ * only a bounded set of rows in memory.
+ *
+ * Layout (little-endian): magic, version, width, height, numTiles, 0, layout hash (long),
+ * the numTiles signature words, then numTiles * numTiles distances.
+ */
+public class DistanceTableCache
+    extends Object
+{
+
+    private static final int MAGIC = 0x4D5A4454; // "MZDT"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+
+    private final Path directory;
+
+    private final AtomicLong hits = new AtomicLong();   // counted from every game sharing this cache
+    private final AtomicLong misses = new AtomicLong();
+
+    public DistanceTableCache(final Path directory)
+    {
+        this.directory = directory;
+    }
+
+    public final Path getDirectory() { return this.directory; }
+    public final long getHits() { return this.hits.get(); }
+    public final long getMisses() { return this.misses.get(); }
+
+    /** Maps the cached table for this layout, or computes it (and stores it for next time). */
+    public MazeDistanceTable getOrBuild(final MazeGraph graph)
+    {
+        long hash = graph.getLayoutHash();
+        Path file = this.directory.resolve(String.format("maze-%016x.dist", hash));
+
+        if (graph.getNumTiles() > MazeDistanceTable.MAX_DENSE_TILES) {
+            return new MazeDistanceTable(graph);
+        }
+
+        MazeDistanceTable table = this.tryMap(file, graph, hash);
+        if (table != null) {
+            this.hits.incrementAndGet();
+            return table;
+        }
+
+        this.misses.incrementAndGet();
+        table = new MazeDistanceTable(graph);
+        this.tryStore(file, graph, hash, table);
+        return table;
+    }
+
+    private MazeDistanceTable tryMap(final Path file, final MazeGraph graph, final long hash)
+    {
+        if (!Files.isRegularFile(file)) return null;
+        int n = graph.getNumTiles();
+        long expectedBytes = HEADER_BYTES + 4L * n + 4L * n * n; // at most 64 MB: only dense tables are cached
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != expectedBytes) return null;
+            // the mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, expectedBytes);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                || buffer.getInt(8) != graph.getWidth() || buffer.getInt(12) != graph.getHeight()
+                || buffer.getInt(16) != n || buffer.getLong(24) != hash) {
+                return null;
+            }
+            int[] signature = graph.getLayoutSignature();
+            for (int i = 0; i < n; i++) {
+                if (buffer.getInt(HEADER_BYTES + 4 * i) != signature[i]) return null;
+            }
+
+            IntBuffer distances = buffer.position(HEADER_BYTES + 4 * n).slice()
+                .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            return new MazeDistanceTable(graph, distances);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    // Writes the file one row at a time through a small buffer, so storing needs no second copy of the table
+    private void tryStore(final Path file, final MazeGraph graph, final long hash, final MazeDistanceTable table)
+    {
+        int n = graph.getNumTiles();
+        Path tmp = null;
+        try {
+            Files.createDirectories(this.directory);
+            tmp = Files.createTempFile(this.directory, "maze-", ".tmp");
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocate(Math.max(HEADER_BYTES, 4 * n)).order(ByteOrder.LITTLE_ENDIAN);
+                buffer.putInt(MAGIC).putInt(VERSION).putInt(graph.getWidth()).putInt(graph.getHeight())
+                      .putInt(n).putInt(0).putLong(hash);
+                buffer.flip();
+                writeFully(channel, buffer);
+
+                IntBuffer words = buffer.clear().asIntBuffer(); // shares content and byte order
+                words.put(graph.getLayoutSignature());
+                writeFully(channel, buffer.limit(4 * n));
+
+                for (int source = 0; source < n; source++) {
+                    table.writeRowTo(source, words.clear());
+                    writeFully(channel, buffer.clear().limit(4 * n));
+                }
+                if (channel.size() != HEADER_BYTES + 4L * n + 4L * n * n) throw new IOException("short write");
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            try {
+                if (tmp != null) Files.deleteIfExists(tmp);
+            } catch (IOException ignored) {
+                // best effort
+            }
+        }
+    }
+
+    private static void writeFully(final FileChannel channel, final ByteBuffer buffer) throws IOException
+    {
+        while (buffer.hasRemaining()) channel.write(buffer);
+    }
+}
@@ -0,0 +1,215 @@
+package src.pas.pacman.graph;
+
+
+// SYSTEM IMPORTS
+import java.util.Arrays;
+
+
+// JAVA PROJECT IMPORTS
+
+
+/**
+ * Corridor-compressed view of a MazeGraph.
+ *
+ * Junctions (3+ exits) and dead ends (1 exit) become vertices; every maximal run of
+ * two-exit tiles between them becomes one edge that remembers its length and its interior
+ * tiles in order from endpoint A to endpoint B. Loops made only of corridor tiles get one
+ * of their tiles promoted to a vertex.
+ *
+ * Some moves are one-way (Pacman may leave the ghost pen but not enter it), so a tile is
+ * only treated as corridor when every move into or out of it can be reversed. That makes
+ * every corridor edge undirected; the only directed edges are one-way steps between two
+ * adjacent vertices.
+ */
+public class JunctionGraph
+    extends Object
+{
+
+    public static final int NONE = -1;
+
+    private final MazeGraph maze;
+
+    // vertices
+    private final int[] vertexOfTile;   // tile -> vertex id (or NONE for corridor tiles)
+    private int[] tileOfVertex;
+    private int numVertices = 0;
+
+    // edges (interior tiles stored flat, A-side first)
+    private int[] edgeA;
+    private int[] edgeB;
+    private boolean[] edgeOneWay;       // edge can only be walked from A to B
+    private int[] edgeTileStart;        // edge -> first slot in edgeTiles; edge e spans [start[e], start[e+1])
+    private int[] edgeTiles;
+    private int numEdges = 0;
+    private int numEdgeTiles = 0;
+
+    private final int[] edgeOfTile;     // corridor tile -> edge id
+    private final int[] offsetOfTile;   // corridor tile -> 1-based position among its edge's interior tiles
+
+    // adjacency in compressed-row form
+    private int[] adjStart;
+    private int[] adjEdge;
+
+    public JunctionGraph(final MazeGraph maze)
+    {
+        this.maze = maze;
+        final int n = maze.getNumTiles();
+        this.vertexOfTile = new int[n];
+        this.edgeOfTile = new int[n];
+        this.offsetOfTile = new int[n];
+        Arrays.fill(this.vertexOfTile, NONE);
+        Arrays.fill(this.edgeOfTile, NONE);
+
+        this.tileOfVertex = new int[n];
+        this.edgeA = new int[4 * n];
+        this.edgeB = new int[4 * n];
+        this.edgeOneWay = new boolean[4 * n];
+        this.edgeTileStart = new int[4 * n + 1];
+        this.edgeTiles = new int[n];
+
+        for (int t = 0; t < n; t++) {
+            if (Integer.bitCount(maze.getMoveMask(t)) != 2 || !this.isSymmetric(t)) this.addVertex(t);
+        }
+        for (int v = 0; v < this.numVertices; v++) this.traceEdgesFrom(v);
+
+        // corridor loops with no junction on them
+        for (int t = 0; t < n; t++) {
+            if (this.vertexOfTile[t] == NONE && this.edgeOfTile[t] == NONE) {
+                int v = this.addVertex(t);
+                this.traceEdgesFrom(v);
+            }
+        }
+
+        this.tileOfVertex = Arrays.copyOf(this.tileOfVertex, this.numVertices);
+        this.edgeTileStart[this.numEdges] = this.numEdgeTiles;
+        this.buildAdjacency();
+    }
+
+    // Every legal move out of the tile can be undone, and every legal move into it too
+    private boolean isSymmetric(final int tile)
+    {
+        for (int d = 0; d < 4; d++) {
+            int adj = this.maze.getAdjacentTile(tile, d);
+            if (adj == MazeGraph.NO_TILE) continue;
+            boolean out = this.maze.getNeighbor(tile, d) == adj;
+            boolean in = this.maze.getNeighbor(adj, MazeGraph.opposite(d)) == tile;
+            if (out != in) return false;
+        }
+        return true;
+    }
+
+    private int addVertex(final int tile)
+    {
+        int v = this.numVertices++;
+        this.vertexOfTile[tile] = v;
+        this.tileOfVertex[v] = tile;
+        return v;
+    }
+
+    private void traceEdgesFrom(final int v)
+    {
+        final int origin = this.tileOfVertex[v];
+        int mask = this.maze.getMoveMask(origin);
+        while (mask != 0) {
+            int d = Integer.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+
+            int first = this.maze.getNeighbor(origin, d);
+            int w = this.vertexOfTile[first];
+            if (w != NONE) {
+                // adjacent vertices: a two-way step is added once (from the lower id), a one-way step as is
+                boolean twoWay = this.maze.getNeighbor(first, MazeGraph.opposite(d)) == origin;
+                if (!twoWay) {
+                    this.edgeOneWay[this.addEdge(v, w, origin, first)] = true;
+                } else if (v < w) {
+                    this.addEdge(v, w, origin, first);
+                }
+                continue;
+            }
+            if (this.edgeOfTile[first] != NONE) continue; // corridor already traced from its other end
+
+            this.addEdge(v, NONE, origin, first);
+        }
+    }
+
+    // Walk the corridor starting at 'first' (entered from 'prev') until reaching a vertex
+    private int addEdge(final int a, final int knownB, int prev, int tile)
+    {
+        final int e = this.numEdges++;
+        this.edgeA[e] = a;
+        this.edgeTileStart[e] = this.numEdgeTiles;
+
+        int b = knownB;
+        int offset = 0;
+        while (b == NONE) {
+            if (this.vertexOfTile[tile] != NONE) {
+                b = this.vertexOfTile[tile];
+                break;
+            }
+            this.edgeTiles[this.numEdgeTiles++] = tile;
+            this.edgeOfTile[tile] = e;
+            this.offsetOfTile[tile] = ++offset;
+
+            // a corridor tile has exactly two exits: take the one we didn't come from
+            int mask = this.maze.getMoveMask(tile);
+            int next = NONE;
+            while (mask != 0) {
+                int d = Integer.numberOfTrailingZeros(mask);
+                mask &= mask - 1;
+                int nb = this.maze.getNeighbor(tile, d);
+                if (nb != prev) { next = nb; break; }
+            }
+            prev = tile;
+            tile = next;
+        }
+        this.edgeB[e] = b;
+        return e;
+    }
+
+    private void buildAdjacency()
+    {
+        int[] degree = new int[this.numVertices + 1];
+        for (int e = 0; e < this.numEdges; e++) {
+            degree[this.edgeA[e]]++;
+            if (this.edgeB[e] != this.edgeA[e]) degree[this.edgeB[e]]++;
+        }
+        this.adjStart = new int[this.numVertices + 1];
+        for (int v = 0; v < this.numVertices; v++) this.adjStart[v + 1] = this.adjStart[v] + degree[v];
+
+        this.adjEdge = new int[this.adjStart[this.numVertices]];
+        int[] fill = Arrays.copyOf(this.adjStart, this.numVertices);
+        for (int e = 0; e < this.numEdges; e++) {
+            this.adjEdge[fill[this.edgeA[e]]++] = e;
+            if (this.edgeB[e] != this.edgeA[e]) this.adjEdge[fill[this.edgeB[e]]++] = e;
+        }
+    }
+
+    public final MazeGraph getMaze() { return this.maze; }
+    public final int getNumVertices() { return this.numVertices; }
+    public final int getNumEdges() { return this.numEdges; }
+
+    public final int getVertexOfTile(final int tile) { return this.vertexOfTile[tile]; }
+    public final int getTileOfVertex(final int v) { return this.tileOfVertex[v]; }
+
+    public final int getEdgeA(final int e) { return this.edgeA[e]; }
+    public final int getEdgeB(final int e) { return this.edgeB[e]; }
+    public final boolean isOneWay(final int e) { return this.edgeOneWay[e]; }
+
+    /** True if edge e can be walked starting from its endpoint v. */
+    public final boolean canLeave(final int e, final int v) { return !this.edgeOneWay[e] || this.edgeA[e] == v; }
+
+    public final int getOtherEnd(final int e, final int v) { return this.edgeA[e] == v ? this.edgeB[e] : this.edgeA[e]; }
+
+    /** Number of moves to walk edge e end to end. */
+    public final int getEdgeLength(final int e) { return this.getNumInteriorTiles(e) + 1; }
+    public final int getNumInteriorTiles(final int e) { return this.edgeTileStart[e + 1] - this.edgeTileStart[e]; }
+
+    /** i-th interior tile of edge e, 1-based, counted from endpoint A. */
+    public final int getInteriorTile(final int e, final int i) { return this.edgeTiles[this.edgeTileStart[e] + i - 1]; }
+
+    public final int getEdgeOfTile(final int tile) { return this.edgeOfTile[tile]; }
+    public final int getOffsetOfTile(final int tile) { return this.offsetOfTile[tile]; }
+
+    public final int getDegree(final int v) { return this.adjStart[v + 1] - this.adjStart[v]; }
+    public final int getIncidentEdge(final int v, final int i) { return this.adjEdge[this.adjStart[v] + i]; }
+}
@@ -0,0 +1,166 @@
+package src.pas.pacman.graph;
+
+
+// SYSTEM IMPORTS
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+
+// JAVA PROJECT IMPORTS
+import edu.bu.pas.pacman.utils.Coordinate;
+
+
+/**
+ * All-pairs shortest path lengths (in moves) between the tiles of a MazeGraph.
+ *
+ * Boards of up to MAX_DENSE_TILES tiles get a dense table, built once per board by running a
+ * BFS from every tile. Distances live in one flat int array indexed by (from * numTiles + to),
+ * so a lookup is a single array read. A table loaded by DistanceTableCache reads the same
+ * layout from a read-only mapped file instead.
+ *
+ * Larger boards would need numTiles^2 ints (276 MB at 8.3k tiles, and more than an int array
+ * can index past 46k tiles), so their rows are computed by BFS on first use and kept in a
+ * bounded cache of about ROW_CACHE_INTS distances; the oldest row is dropped first and its
+ * array reused. The planner threads share the table, so a row-cached lookup reads its
+ * distance while holding the lock: once released, the row may be refilled for another source.
+ */
+public class MazeDistanceTable
+    extends Object
+{
+
+    public static final int UNREACHABLE = -1;
+
+    public static final int MAX_DENSE_TILES = 4096;        // 64 MB dense table
+    private static final long ROW_CACHE_INTS = 16L << 20;  // 64 MB of cached rows above that
+
+    private final MazeGraph graph;
+    private final int numTiles;
+    private final int[] distances;  // dense table; null when mapped or row-cached
+    private final IntBuffer mapped;
+
+    // Row cache for boards over the dense limit: rows[source] or null, evicted in FIFO order
+    private final int[][] rows;
+    private final int[] rowOrder;
+    private int rowOrderNext = 0;
+    private int[] queue;
+
+    public MazeDistanceTable(final MazeGraph graph)
+    {
+        this(graph, MAX_DENSE_TILES);
+    }
+
+    /** Table that is dense up to maxDenseTiles tiles and row-cached above. */
+    public MazeDistanceTable(final MazeGraph graph, final int maxDenseTiles)
+    {
+        this.graph = graph;
+        this.numTiles = graph.getNumTiles();
+        this.mapped = null;
+        this.queue = new int[this.numTiles];
+
+        if (this.numTiles <= maxDenseTiles) {
+            this.distances = new int[Math.toIntExact((long) this.numTiles * this.numTiles)];
+            this.rows = null;
+            this.rowOrder = null;
+            for (int source = 0; source < this.numTiles; source++) {
+                this.bfsFrom(source, this.distances, source * this.numTiles);
+            }
+            this.queue = null;
+        } else {
+            long maxRows = Math.max(1L, ROW_CACHE_INTS / this.numTiles);
+            this.distances = null;
+            this.rows = new int[this.numTiles][];
+            this.rowOrder = new int[(int) Math.min(this.numTiles, maxRows)];
+            Arrays.fill(this.rowOrder, MazeGraph.NO_TILE);
+        }
+    }
+
+    /** Table over a buffer that already holds numTiles * numTiles distances in row order. */
+    MazeDistanceTable(final MazeGraph graph, final IntBuffer mapped)
+    {
+        this.graph = graph;
+        this.numTiles = graph.getNumTiles();
+        this.distances = null;
+        this.mapped = mapped;
+        this.rows = null;
+        this.rowOrder = null;
+    }
+
+    // Writes the distances from source into out[offset .. offset + numTiles)
+    private void bfsFrom(final int source, final int[] out, final int offset)
+    {
+        Arrays.fill(out, offset, offset + this.numTiles, UNREACHABLE);
+        int head = 0;
+        int tail = 0;
+
+        out[offset + source] = 0;
+        this.queue[tail++] = source;
+
+        while (head < tail) {
+            int tile = this.queue[head++];
+            int nextDist = out[offset + tile] + 1;
+            for (int d = 0; d < 4; d++) {
+                int nb = this.graph.getNeighbor(tile, d);
+                if (nb != MazeGraph.NO_TILE && out[offset + nb] == UNREACHABLE) {
+                    out[offset + nb] = nextDist;
+                    this.queue[tail++] = nb;
+                }
+            }
+        }
+    }
+
+    // Distance from source to target out of the cached row, computing it (and evicting the oldest) on a miss
+    private synchronized int getCachedDistance(final int source, final int target)
+    {
+        int[] row = this.rows[source];
+        if (row == null) {
+            int evicted = this.rowOrder[this.rowOrderNext];
+            if (evicted != MazeGraph.NO_TILE) {
+                row = this.rows[evicted];
+                this.rows[evicted] = null;
+            } else {
+                row = new int[this.numTiles];
+            }
+            this.bfsFrom(source, row, 0);
+            this.rows[source] = row;
+            this.rowOrder[this.rowOrderNext] = source;
+            this.rowOrderNext = (this.rowOrderNext + 1) % this.rowOrder.length;
+        }
+        return row[target];
+    }
+
+    public final MazeGraph getGraph() { return this.graph; }
+
+    /** True if the distances are read from a mapped cache file rather than computed. */
+    public final boolean isMapped() { return this.mapped != null; }
+
+    /** True if every distance is held at once (computed or mapped), false for a row-cached table. */
+    public final boolean isDense() { return this.rows == null; }
+
+    /** Number of moves from tile a to tile b, or UNREACHABLE. */
+    public final int getDistance(final int a, final int b)
+    {
+        if (this.distances != null) return this.distances[a * this.numTiles + b];
+        if (this.mapped != null) return this.mapped.get(a * this.numTiles + b);
+        return this.getCachedDistance(a, b);
+    }
+
+    public final int getDistance(final Coordinate a, final Coordinate b)
+    {
+        int ia = this.graph.getTileId(a);
+        int ib = this.graph.getTileId(b);
+        if (ia == MazeGraph.NO_TILE || ib == MazeGraph.NO_TILE) return UNREACHABLE;
+        return this.getDistance(ia, ib);
+    }
+
+    /** Copies the numTiles distances from tile source into out (dense tables only). */
+    void writeRowTo(final int source, final IntBuffer out)
+    {
+        if (this.distances != null) {
+            out.put(this.distances, source * this.numTiles, this.numTiles);
+        } else {
+            IntBuffer row = this.mapped.duplicate();
+            row.limit((source + 1) * this.numTiles).position(source * this.numTiles);
+            out.put(row);
+        }
+    }
+}
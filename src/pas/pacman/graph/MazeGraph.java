@@ -0,0 +1,166 @@
+package src.pas.pacman.graph;
+
+
+// SYSTEM IMPORTS
+
+
+// JAVA PROJECT IMPORTS
+import edu.bu.pas.pacman.game.Action;
+import edu.bu.pas.pacman.game.DefaultBoard.CellState;
+import edu.bu.pas.pacman.game.Game.GameView;
+import edu.bu.pas.pacman.utils.Coordinate;
+
+
+/**
+ * Immutable snapshot of the walkable part of a Pacman board.
+ *
+ * Every non-wall tile gets a dense tile id in [0, getNumTiles()). Legal Pacman moves are
+ * queried from the GameView exactly once per tile and stored as a 4-bit move mask, so
+ * searches never have to allocate Coordinates or call back into the game to expand a tile.
+ */
+public class MazeGraph
+    extends Object
+{
+
+    public static final int NO_TILE = -1;
+
+    // bit for each direction in a tile's move mask, indexed like DIRECTIONS
+    public static final Action[] DIRECTIONS = {Action.NORTH, Action.SOUTH, Action.EAST, Action.WEST};
+    private static final int[] DX = { 0, 0, 1, -1};
+    private static final int[] DY = {-1, 1, 0,  0};
+
+    private final int width;
+    private final int height;
+    private final int[] tileIdByCell;       // y * width + x -> tile id (or NO_TILE for walls)
+    private final Coordinate[] coordinates; // tile id -> coordinate
+    private final byte[] moveMasks;         // tile id -> 4-bit mask of legal directions
+    private final int[] neighbors;          // tile id * 4 + direction -> neighbor tile id (or NO_TILE)
+
+    public MazeGraph(final GameView game)
+    {
+        this.width = game.getXBoardDimension();
+        this.height = game.getYBoardDimension();
+        this.tileIdByCell = new int[this.width * this.height];
+
+        int numTiles = 0;
+        for (int y = 0; y < this.height; y++) {
+            for (int x = 0; x < this.width; x++) {
+                Coordinate c = new Coordinate(x, y);
+                boolean walkable = game.getCell(c).getCellState() != CellState.WALL;
+                this.tileIdByCell[y * this.width + x] = walkable ? numTiles++ : NO_TILE;
+            }
+        }
+
+        this.coordinates = new Coordinate[numTiles];
+        this.moveMasks = new byte[numTiles];
+        this.neighbors = new int[numTiles * 4];
+
+        for (int y = 0; y < this.height; y++) {
+            for (int x = 0; x < this.width; x++) {
+                int id = this.tileIdByCell[y * this.width + x];
+                if (id == NO_TILE) continue;
+
+                Coordinate c = new Coordinate(x, y);
+                this.coordinates[id] = c;
+
+                int mask = this.computeMoveMask(game, c);
+                for (int d = 0; d < 4; d++) {
+                    this.neighbors[id * 4 + d] = (mask & (1 << d)) != 0 ? this.getTileId(x + DX[d], y + DY[d]) : NO_TILE;
+                }
+                this.moveMasks[id] = (byte) mask;
+            }
+        }
+    }
+
+    // Directions Pacman may legally move from c onto a walkable tile, as a 4-bit mask
+    private int computeMoveMask(final GameView game, final Coordinate c)
+    {
+        int mask = 0;
+        for (int d = 0; d < 4; d++) {
+            int nb = this.getTileId(c.getXCoordinate() + DX[d], c.getYCoordinate() + DY[d]);
+            if (nb != NO_TILE && game.isLegalPacmanMove(c, DIRECTIONS[d])) {
+                mask |= (1 << d);
+            }
+        }
+        return mask;
+    }
+
+    public final int getWidth() { return this.width; }
+    public final int getHeight() { return this.height; }
+    public final int getNumTiles() { return this.coordinates.length; }
+
+    public final int getTileId(final int x, final int y)
+    {
+        if (x < 0 || y < 0 || x >= this.width || y >= this.height) return NO_TILE;
+        return this.tileIdByCell[y * this.width + x];
+    }
+
+    public final int getTileId(final Coordinate c)
+    {
+        return c == null ? NO_TILE : this.getTileId(c.getXCoordinate(), c.getYCoordinate());
+    }
+
+    public final Coordinate getCoordinate(final int tileId) { return this.coordinates[tileId]; }
+
+    public final int getMoveMask(final int tileId) { return this.moveMasks[tileId]; }
+
+    /** Index into DIRECTIONS of the direction opposite to d. */
+    public static int opposite(final int d) { return d ^ 1; }
+
+    /** Walkable tile next to tileId in direction d, whether or not the move is legal (NO_TILE if none). */
+    public final int getAdjacentTile(final int tileId, final int d)
+    {
+        Coordinate c = this.coordinates[tileId];
+        return this.getTileId(c.getXCoordinate() + DX[d], c.getYCoordinate() + DY[d]);
+    }
+
+    /** Neighbor of tileId in direction d (index into DIRECTIONS), or NO_TILE if the move is illegal. */
+    public final int getNeighbor(final int tileId, final int d) { return this.neighbors[tileId * 4 + d]; }
+
+    /**
+     * Per-tile layout descriptor, (cell index << 4) | move mask in tile id order. Two boards
+     * with equal signatures have identical graphs, and therefore identical distance tables.
+     */
+    public int[] getLayoutSignature()
+    {
+        int[] signature = new int[this.getNumTiles()];
+        for (int id = 0; id < signature.length; id++) {
+            Coordinate c = this.coordinates[id];
+            signature[id] = ((c.getYCoordinate() * this.width + c.getXCoordinate()) << 4) | this.moveMasks[id];
+        }
+        return signature;
+    }
+
+    /** 64-bit FNV-1a hash of the board dimensions and getLayoutSignature(). */
+    public long getLayoutHash()
+    {
+        long h = 0xcbf29ce484222325L;
+        h = (h ^ this.width) * 0x100000001b3L;
+        h = (h ^ this.height) * 0x100000001b3L;
+        for (int word : this.getLayoutSignature()) {
+            h = (h ^ word) * 0x100000001b3L;
+        }
+        return h;
+    }
+
+    /**
+     * True when this graph was built for a board with the same layout as the given view: same
+     * dimensions, walls in the same cells and the same legal moves from every tile (that is,
+     * the same getLayoutSignature()). Costs about as much as a walk over the board.
+     */
+    public boolean matches(final GameView game)
+    {
+        if (game.getXBoardDimension() != this.width || game.getYBoardDimension() != this.height) return false;
+
+        for (int y = 0; y < this.height; y++) {
+            for (int x = 0; x < this.width; x++) {
+                int id = this.tileIdByCell[y * this.width + x];
+                Coordinate c = new Coordinate(x, y);
+                boolean walkable = game.getCell(c).getCellState() != CellState.WALL;
+                if (walkable != (id != NO_TILE)) return false;
+                if (walkable && this.computeMoveMask(game, c) != this.moveMasks[id]) return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,128 @@
+package src.pas.pacman.heuristics;
+
+
+// SYSTEM IMPORTS
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+// JAVA PROJECT IMPORTS
+import src.pas.pacman.graph.MazeDistanceTable;
+import src.pas.pacman.search.PelletIndex;
+import src.pas.pacman.search.PelletStateHeuristic;
+import src.pas.pacman.search.PelletStateKey;
+
+
+/**
+ * Admissible estimate of the remaining tour length in the pellet search:
+ * the maze distance from Pacman to the nearest remaining pellet plus the weight of a
+ * minimum spanning tree over the remaining pellets (also using maze distances).
+ *
+ * Any tour that eats every pellet walks to some first pellet and then connects all the
+ * pellets, so it can never be shorter than this. MST weights only depend on the pellet
+ * subset and are memoized in a bounded LRU cache.
+ */
+public class MstHeuristic
+    extends Object
+    implements PelletStateHeuristic
+{
+
+    public static final int DEFAULT_CACHE_SIZE = 1 << 16;
+
+    private final PelletIndex pellets;
+    private final MazeDistanceTable distances;
+    private final Map<PelletStateKey, Integer> mstCache;
+
+    // scratch space for Prim's algorithm, sized for the full pellet set
+    private final int[] members;
+    private final int[] bestLink;
+    private final boolean[] inTree;
+
+    private long cacheHits = 0;
+    private long cacheMisses = 0;
+
+    public MstHeuristic(final PelletIndex pellets,
+                        final MazeDistanceTable distances,
+                        final int maxCacheEntries)
+    {
+        this.pellets = pellets;
+        this.distances = distances;
+        this.mstCache = new LinkedHashMap<PelletStateKey, Integer>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<PelletStateKey, Integer> eldest)
+            {
+                return this.size() > maxCacheEntries;
+            }
+        };
+
+        int n = pellets.getNumPellets();
+        this.members = new int[n];
+        this.bestLink = new int[n];
+        this.inTree = new boolean[n];
+    }
+
+    public final long getCacheHits() { return this.cacheHits; }
+    public final long getCacheMisses() { return this.cacheMisses; }
+
+    @Override
+    public float estimate(final PelletStateKey state)
+    {
+        if (state.isEmpty()) return 0f;
+
+        int from = state.getPacmanTile();
+        int nearest = Integer.MAX_VALUE;
+        for (int p = state.nextPellet(0); p >= 0; p = state.nextPellet(p + 1)) {
+            int d = this.distances.getDistance(from, this.pellets.getPelletTile(p));
+            if (d != MazeDistanceTable.UNREACHABLE && d < nearest) nearest = d;
+        }
+        if (nearest == Integer.MAX_VALUE) return Float.POSITIVE_INFINITY;
+
+        return nearest + this.getMstWeight(state);
+    }
+
+    public int getMstWeight(final PelletStateKey state)
+    {
+        PelletStateKey subset = state.pelletSubset(this.pellets);
+        Integer cached = this.mstCache.get(subset);
+        if (cached != null) {
+            this.cacheHits++;
+            return cached;
+        }
+        this.cacheMisses++;
+
+        int weight = this.computeMst(subset);
+        this.mstCache.put(subset, weight);
+        return weight;
+    }
+
+    // Prim's algorithm on the complete graph over the subset, O(k^2) with no allocation
+    private int computeMst(final PelletStateKey subset)
+    {
+        int k = 0;
+        for (int p = subset.nextPellet(0); p >= 0; p = subset.nextPellet(p + 1)) {
+            this.members[k] = this.pellets.getPelletTile(p);
+            this.bestLink[k] = Integer.MAX_VALUE;
+            this.inTree[k] = false;
+            k++;
+        }
+        if (k <= 1) return 0;
+
+        int total = 0;
+        int last = 0;
+        this.inTree[0] = true;
+        for (int added = 1; added < k; added++) {
+            int next = -1;
+            for (int i = 0; i < k; i++) {
+                if (this.inTree[i]) continue;
+                int d = this.distances.getDistance(this.members[last], this.members[i]);
+                if (d != MazeDistanceTable.UNREACHABLE && d < this.bestLink[i]) this.bestLink[i] = d;
+                if (next == -1 || this.bestLink[i] < this.bestLink[next]) next = i;
+            }
+            if (this.bestLink[next] == Integer.MAX_VALUE) break; // rest is disconnected
+            total += this.bestLink[next];
+            this.inTree[next] = true;
+            last = next;
+        }
+        return total;
+    }
+}
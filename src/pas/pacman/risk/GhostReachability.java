@@ -0,0 +1,151 @@
+package src.pas.pacman.risk;
+
+
+// SYSTEM IMPORTS
+import java.util.Arrays;
+
+
+// JAVA PROJECT IMPORTS
+import edu.bu.pas.pacman.game.Game.GameView;
+import edu.bu.pas.pacman.utils.Coordinate;
+
+import src.pas.pacman.graph.MazeGraph;
+
+
+/**
+ * Where the ghosts could be over the next few ticks, as one bitboard per tick.
+ *
+ * Boards are long[] words over the cells of the maze in row-major order (bit y * width + x).
+ * Tick 0 holds the ghosts' current cells. Tick t holds every cell a ghost can occupy after
+ * exactly t moves, computed by shifting tick t - 1 one step in each direction, masked by the
+ * cells a ghost may legally leave that way. GhostAgent moves every tick, both while chasing
+ * (within its chase radius) and while wandering, and its backoff can always turn it
+ * away, so the sets keep the grid's parity but do not rule out any direction.
+ *
+ * Pacman moves first in a turn, then the ghosts. A step onto tile at tick t is therefore
+ * deadly if a ghost is there before it moves (tick t - 1) or steps onto it afterwards (tick
+ * t), and the danger board of tick t is the union of the two. isSafe(tile, t) is one bit test.
+ *
+ * The tile searches do not use it: their costs have no arrival time, so they keep pricing
+ * ghosts through GhostRiskField. PacmanAgent only tests the step it is about to take.
+ */
+public class GhostReachability
+    extends Object
+{
+
+    private static final int NORTH = 0;
+    private static final int SOUTH = 1;
+    private static final int EAST = 2;
+    private static final int WEST = 3;
+
+    private final MazeGraph graph;
+    private final int horizon;
+    private final int width;
+    private final int words;
+
+    private final int[] tileBit;        // tile id -> bit index
+    private final long[][] canMove;     // direction -> cells a ghost may leave in that direction
+    private final long[][] occupied;    // tick -> cells a ghost can be on after exactly that many moves
+    private final long[][] danger;      // tick -> occupied[t - 1] | occupied[t]
+
+    public GhostReachability(final MazeGraph graph,
+                             final GameView game,
+                             final int horizon)
+    {
+        this.graph = graph;
+        this.horizon = Math.max(1, horizon);
+        this.width = graph.getWidth();
+        this.words = (graph.getWidth() * graph.getHeight() + 63) >>> 6;
+
+        int n = graph.getNumTiles();
+        this.tileBit = new int[n];
+        this.canMove = new long[MazeGraph.DIRECTIONS.length][this.words];
+        for (int tile = 0; tile < n; tile++) {
+            Coordinate c = graph.getCoordinate(tile);
+            int bit = c.getYCoordinate() * this.width + c.getXCoordinate();
+            this.tileBit[tile] = bit;
+            for (int d = 0; d < MazeGraph.DIRECTIONS.length; d++) {
+                // target must be a tile too, so no shift can wrap around a row or leave the board
+                if (graph.getAdjacentTile(tile, d) != MazeGraph.NO_TILE && game.isLegalGhostMove(c, MazeGraph.DIRECTIONS[d])) {
+                    this.canMove[d][bit >>> 6] |= 1L << bit;
+                }
+            }
+        }
+        this.occupied = new long[this.horizon + 1][this.words];
+        this.danger = new long[this.horizon + 1][this.words];
+    }
+
+    public final MazeGraph getGraph() { return this.graph; }
+
+    /** Last tick with a board; ticks past it are reported safe. */
+    public final int getHorizon() { return this.horizon; }
+
+    /** Bit of tile in every board of this class. */
+    public final int getBitIndex(final int tile) { return this.tileBit[tile]; }
+
+    /** Live board of cells some ghost can occupy at tick t; overwritten by update(). */
+    public final long[] getOccupied(final int t) { return this.occupied[t]; }
+
+    /** Live board of cells Pacman must not enter at tick t; overwritten by update(). */
+    public final long[] getDanger(final int t) { return this.danger[t]; }
+
+    /** False if Pacman could meet a ghost by entering tile at tick t (1 = the coming move). */
+    public final boolean isSafe(final int tile, final int t)
+    {
+        if (t > this.horizon || tile == MazeGraph.NO_TILE) return true;
+        int bit = this.tileBit[tile];
+        return (this.danger[t][bit >>> 6] & (1L << bit)) == 0L;
+    }
+
+    /** Rebuilds every board from the ghost tiles of the last ghosts.update(). */
+    public void update(final GhostRiskField ghosts)
+    {
+        long[] now = this.occupied[0];
+        Arrays.fill(now, 0L);
+        for (int g = 0; g < ghosts.getNumGhosts(); g++) {
+            int tile = ghosts.getGhostTile(g);
+            if (tile == MazeGraph.NO_TILE) continue;
+            int bit = this.tileBit[tile];
+            now[bit >>> 6] |= 1L << bit;
+        }
+        System.arraycopy(now, 0, this.danger[0], 0, this.words);
+
+        for (int t = 1; t <= this.horizon; t++) {
+            long[] prev = this.occupied[t - 1];
+            long[] next = this.occupied[t];
+            Arrays.fill(next, 0L);
+            shiftInto(prev, this.canMove[EAST], 1, next);
+            shiftInto(prev, this.canMove[WEST], -1, next);
+            shiftInto(prev, this.canMove[SOUTH], this.width, next);
+            shiftInto(prev, this.canMove[NORTH], -this.width, next);
+
+            long[] unsafe = this.danger[t];
+            for (int w = 0; w < this.words; w++) unsafe[w] = prev[w] | next[w];
+        }
+    }
+
+    // dst |= (src & mask) shifted by k bits (k > 0 toward higher bits)
+    private static void shiftInto(final long[] src, final long[] mask, final int k, final long[] dst)
+    {
+        int n = dst.length;
+        int wordShift = Math.abs(k) >>> 6;
+        int bitShift = Math.abs(k) & 63;
+        if (k > 0) {
+            for (int w = n - 1; w >= wordShift; w--) {
+                int from = w - wordShift;
+                long hi = src[from] & mask[from];
+                long v = hi << bitShift;
+                if (bitShift != 0 && from > 0) v |= (src[from - 1] & mask[from - 1]) >>> (64 - bitShift);
+                dst[w] |= v;
+            }
+        } else {
+            for (int w = 0; w + wordShift < n; w++) {
+                int from = w + wordShift;
+                long lo = src[from] & mask[from];
+                long v = lo >>> bitShift;
+                if (bitShift != 0 && from + 1 < n) v |= (src[from + 1] & mask[from + 1]) << (64 - bitShift);
+                dst[w] |= v;
+            }
+        }
+    }
+}
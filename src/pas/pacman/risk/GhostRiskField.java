@@ -0,0 +1,226 @@
+package src.pas.pacman.risk;
+
+
+// SYSTEM IMPORTS
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+// JAVA PROJECT IMPORTS
+import edu.bu.pas.pacman.game.Game.GameView;
+import edu.bu.pas.pacman.game.entity.Entity;
+import edu.bu.pas.pacman.game.entity.Ghost;
+
+import src.pas.pacman.graph.MazeGraph;
+
+
+/**
+ * Per-tile distance to the nearest ghost (up to a radius) and the risk penalty derived
+ * from it, kept in primitive arrays indexed by tile id.
+ *
+ * Each ghost owns a bounded BFS field. When a ghost moves, only its old and new
+ * neighbourhoods are recomputed, and the combined minimum is refreshed on just those tiles.
+ * Of those, only the tiles whose risk value actually changed are reported to callers.
+ * Ghost entity ids are found once, on the first update, by probing the ids after Pacman's.
+ */
+public class GhostRiskField
+    extends Object
+{
+
+    public static final int FAR = Integer.MAX_VALUE;
+
+    private final MazeGraph graph;
+    private final int radius;
+    private final float weight;
+
+    private int[] ghostIds = null;
+    private int[] ghostTiles;
+    private int[][] ghostDist;       // ghost -> tile -> distance (FAR outside the radius)
+    private int[][] ghostTouched;    // ghost -> tiles within its radius
+    private int[] ghostTouchedCount;
+
+    private final int[] minDist;
+    private final float[] risk;
+
+    // scratch
+    private final int[] queue;
+    private final int[] dirty;
+    private final int[] dirtyStamp;
+    private int dirtyCount = 0;
+    private int generation = 0;
+    private final int[] changed;
+
+    private int tilesRecomputed = 0;
+    private int tilesChanged = 0;
+
+    public GhostRiskField(final MazeGraph graph,
+                          final int radius,
+                          final float weight)
+    {
+        this.graph = graph;
+        this.radius = radius;
+        this.weight = weight;
+
+        int n = graph.getNumTiles();
+        this.minDist = new int[n];
+        this.risk = new float[n];
+        this.queue = new int[n];
+        this.dirty = new int[n];
+        this.dirtyStamp = new int[n];
+        this.changed = new int[n];
+        Arrays.fill(this.minDist, FAR);
+    }
+
+    public final int getRadius() { return this.radius; }
+    public final int getNumGhosts() { return this.ghostIds == null ? 0 : this.ghostIds.length; }
+    public final int getGhostId(final int i) { return this.ghostIds[i]; }
+
+    /** Tile the i-th ghost stood on at the last update (NO_TILE if unknown). */
+    public final int getGhostTile(final int i) { return this.ghostTiles[i]; }
+
+    /** Distance to the nearest ghost, or FAR if none is within the radius. */
+    public final int getDistance(final int tile) { return this.minDist[tile]; }
+
+    public final float getRisk(final int tile) { return this.risk[tile]; }
+
+    /** Live risk array (tile id -> penalty); updated in place by update(). */
+    public final float[] getRiskArray() { return this.risk; }
+
+    /** Number of tiles whose combined value was recomputed by the last update. */
+    public final int getTilesRecomputed() { return this.tilesRecomputed; }
+
+    /** i-th tile recomputed by the last update, for i < getTilesRecomputed(). */
+    public final int getRecomputedTile(final int i) { return this.dirty[i]; }
+
+    /** Number of tiles whose risk differs from before the last update. */
+    public final int getTilesChanged() { return this.tilesChanged; }
+
+    /** i-th tile whose risk changed in the last update, for i < getTilesChanged(). */
+    public final int getChangedTile(final int i) { return this.changed[i]; }
+
+    public void update(final GameView game)
+    {
+        if (this.ghostIds == null) this.resolveGhosts(game);
+
+        if (++this.generation == 0) {
+            Arrays.fill(this.dirtyStamp, 0);
+            this.generation = 1;
+        }
+        this.dirtyCount = 0;
+        this.tilesChanged = 0;
+
+        for (int g = 0; g < this.ghostIds.length; g++) {
+            Entity ghost = game.getEntity(this.ghostIds[g]);
+            int tile = ghost == null ? MazeGraph.NO_TILE : this.graph.getTileId(ghost.getCurrentCoordinate());
+            if (tile == this.ghostTiles[g]) continue;
+
+            this.clearGhost(g);
+            this.ghostTiles[g] = tile;
+            if (tile != MazeGraph.NO_TILE) this.fillGhost(g, tile);
+        }
+
+        for (int i = 0; i < this.dirtyCount; i++) {
+            int tile = this.dirty[i];
+            int best = FAR;
+            for (int g = 0; g < this.ghostIds.length; g++) {
+                best = Math.min(best, this.ghostDist[g][tile]);
+            }
+            this.minDist[tile] = best;
+            float r = this.riskAt(best);
+            if (r != this.risk[tile]) {
+                this.risk[tile] = r;
+                this.changed[this.tilesChanged++] = tile;
+            }
+        }
+        this.tilesRecomputed = this.dirtyCount;
+    }
+
+    private float riskAt(final int d)
+    {
+        if (d > this.radius) return 0f;
+        float t = (this.radius - d) / (float) this.radius; // in [0,1]
+        return this.weight * t * t;                        // quadratic falloff
+    }
+
+    // Entity ids are handed out sequentially when the board is built, Pacman's included
+    private void resolveGhosts(final GameView game)
+    {
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 0; ; id++) {
+            Entity e = game.getEntity(id);
+            if (e == null) {
+                if (id > game.getPacmanId()) break;
+                continue;
+            }
+            if (e instanceof Ghost) ids.add(id);
+        }
+
+        int k = ids.size();
+        int n = this.graph.getNumTiles();
+        this.ghostIds = new int[k];
+        this.ghostTiles = new int[k];
+        this.ghostDist = new int[k][n];
+        this.ghostTouched = new int[k][n];
+        this.ghostTouchedCount = new int[k];
+        for (int g = 0; g < k; g++) {
+            this.ghostIds[g] = ids.get(g);
+            this.ghostTiles[g] = MazeGraph.NO_TILE;
+            Arrays.fill(this.ghostDist[g], FAR);
+        }
+    }
+
+    private void markDirty(final int tile)
+    {
+        if (this.dirtyStamp[tile] != this.generation) {
+            this.dirtyStamp[tile] = this.generation;
+            this.dirty[this.dirtyCount++] = tile;
+        }
+    }
+
+    private void clearGhost(final int g)
+    {
+        int[] dist = this.ghostDist[g];
+        int[] touched = this.ghostTouched[g];
+        for (int i = 0; i < this.ghostTouchedCount[g]; i++) {
+            dist[touched[i]] = FAR;
+            this.markDirty(touched[i]);
+        }
+        this.ghostTouchedCount[g] = 0;
+    }
+
+    // Bounded multi-step BFS from the ghost's tile
+    private void fillGhost(final int g, final int source)
+    {
+        int[] dist = this.ghostDist[g];
+        int[] touched = this.ghostTouched[g];
+        int count = 0;
+        int head = 0;
+        int tail = 0;
+
+        dist[source] = 0;
+        touched[count++] = source;
+        this.markDirty(source);
+        this.queue[tail++] = source;
+
+        while (head < tail) {
+            int tile = this.queue[head++];
+            int base = dist[tile];
+            if (base >= this.radius) continue;
+
+            int mask = this.graph.getMoveMask(tile);
+            while (mask != 0) {
+                int d = Integer.numberOfTrailingZeros(mask);
+                mask &= mask - 1;
+                int nb = this.graph.getNeighbor(tile, d);
+                if (dist[nb] == FAR) {
+                    dist[nb] = base + 1;
+                    touched[count++] = nb;
+                    this.markDirty(nb);
+                    this.queue[tail++] = nb;
+                }
+            }
+        }
+        this.ghostTouchedCount[g] = count;
+    }
+}
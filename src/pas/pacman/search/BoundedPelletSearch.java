@@ -0,0 +1,161 @@
+package src.pas.pacman.search;
+
+
+// SYSTEM IMPORTS
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+// JAVA PROJECT IMPORTS
+import src.pas.pacman.graph.MazeDistanceTable;
+
+
+/**
+ * Memory-bounded pellet search: IDA* with a transposition table capped at a fixed number of
+ * entries.
+ *
+ * Each iteration is a depth-first search that cuts off at an f-threshold. The next iteration
+ * raises the threshold to the smallest f that was cut off. The table remembers the cheapest
+ * g at which each state was reached in the current iteration, so a state reached again at
+ * equal or higher cost is not searched twice. When the table is full the least recently used
+ * entry is evicted. Memory is therefore the table plus one frame per pellet, however large the
+ * board is, and a smaller table only costs re-expansions. Tours are optimal for an admissible
+ * heuristic.
+ */
+public class BoundedPelletSearch
+    extends Object
+{
+
+    public static final int DEFAULT_MAX_ENTRIES = 1 << 20;
+    private static final float EPSILON = 1e-4f; // slack for float sums of risk-weighted costs
+
+    private final MazeDistanceTable distances;
+    private final Map<PelletStateKey, Float> table;
+
+    // per-solve state
+    private PelletIndex pellets;
+    private PelletStateHeuristic heuristic;
+    private SearchBudget budget;
+    private float threshold;
+    private float nextThreshold;
+    private int[] path;
+
+    private int[] order = null;
+    private float tourCost = Float.POSITIVE_INFINITY;
+    private int iterations = 0;
+    private long generated = 0;
+
+    public BoundedPelletSearch(final MazeDistanceTable distances,
+                               final int maxEntries)
+    {
+        this.distances = distances;
+        this.table = new LinkedHashMap<PelletStateKey, Float>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<PelletStateKey, Float> eldest)
+            {
+                return this.size() > maxEntries;
+            }
+        };
+    }
+
+    /** Pellet indices in eating order of the tour found by the last solve(). */
+    public final int[] getOrder() { return this.order; }
+    public final float getTourCost() { return this.tourCost; }
+    public final int getIterations() { return this.iterations; }
+
+    /** Child states created over every iteration of the last solve(). */
+    public final long getNodesGenerated() { return this.generated; }
+
+    /**
+     * Finds an optimal tour from startTile over every pellet in the index. Returns false if
+     * there is none, or if the budget runs out first.
+     */
+    public boolean solve(final int startTile,
+                         final PelletIndex pellets,
+                         final PelletStateHeuristic heuristic,
+                         final SearchBudget budget)
+    {
+        this.pellets = pellets;
+        this.heuristic = heuristic;
+        this.budget = budget;
+        this.path = new int[pellets.getNumPellets()];
+        this.order = null;
+        this.tourCost = Float.POSITIVE_INFINITY;
+        this.iterations = 0;
+        this.generated = 0;
+
+        PelletStateKey root = pellets.fullKey(startTile);
+        float rootH = heuristic.estimate(root);
+        this.threshold = rootH;
+        try {
+            while (this.threshold != Float.POSITIVE_INFINITY) {
+                this.iterations++;
+                this.table.clear(); // g-values only prune within one threshold
+                this.nextThreshold = Float.POSITIVE_INFINITY;
+                if (this.search(root, 0f, rootH, 0)) return true;
+                if (budget.isExhausted()) return false;
+                this.threshold = this.nextThreshold;
+            }
+            return false;
+        } finally {
+            this.table.clear();
+            this.path = null;
+        }
+    }
+
+    private boolean search(final PelletStateKey key, final float g, final float h, final int depth)
+    {
+        float f = g + h;
+        if (f > this.threshold + EPSILON) {
+            this.nextThreshold = Math.min(this.nextThreshold, f);
+            return false;
+        }
+        if (key.isEmpty()) {
+            this.order = java.util.Arrays.copyOf(this.path, depth);
+            this.tourCost = g;
+            return true;
+        }
+
+        Float seen = this.table.get(key);
+        if (seen != null && seen <= g) return false; // already searched from here at least as cheaply
+        this.table.put(key, g);
+        if (!this.budget.expand()) return false;
+
+        // Successors, tried in increasing f so the goal turns up early in the last iteration
+        int from = key.getPacmanTile();
+        int k = key.getNumRemaining();
+        PelletStateKey[] childKeys = new PelletStateKey[k];
+        int[] childPellets = new int[k];
+        float[] childG = new float[k];
+        float[] childH = new float[k];
+        int n = 0;
+        for (int p = key.nextPellet(0); p >= 0; p = key.nextPellet(p + 1)) {
+            int dist = this.distances.getDistance(from, this.pellets.getPelletTile(p));
+            if (dist == MazeDistanceTable.UNREACHABLE) continue;
+
+            PelletStateKey child = key.eat(p, this.pellets);
+            this.generated++;
+            float cg = g + dist;
+            float ch = this.heuristic.estimate(child);
+            int i = n++;
+            while (i > 0 && childG[i - 1] + childH[i - 1] > cg + ch) {
+                childKeys[i] = childKeys[i - 1];
+                childPellets[i] = childPellets[i - 1];
+                childG[i] = childG[i - 1];
+                childH[i] = childH[i - 1];
+                i--;
+            }
+            childKeys[i] = child;
+            childPellets[i] = p;
+            childG[i] = cg;
+            childH[i] = ch;
+        }
+
+        for (int i = 0; i < n; i++) {
+            this.path[depth] = childPellets[i];
+            if (this.search(childKeys[i], childG[i], childH[i], depth + 1)) return true;
+            if (this.budget.isExhausted()) return false;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,158 @@
+package src.pas.pacman.search;
+
+
+// SYSTEM IMPORTS
+
+
+// JAVA PROJECT IMPORTS
+import src.pas.pacman.graph.MazeDistanceTable;
+import src.pas.pacman.graph.MazeGraph;
+
+
+/**
+ * Point-to-point A* over the tiles of a MazeGraph, using only preallocated primitive arrays.
+ *
+ * Entering a tile costs 1 plus that tile's entry in a caller-supplied risk array. Per-tile
+ * state is tagged with a generation stamp, so starting a new search is O(1) instead of
+ * clearing every array. With a distance table the heuristic is the exact unweighted maze
+ * distance, which stays admissible because risk is never negative.
+ */
+public class GridSearch
+    extends Object
+    implements TilePathSearch
+{
+
+    public static final float UNREACHED = Float.POSITIVE_INFINITY;
+
+    private final MazeGraph graph;
+    private final MazeDistanceTable distances; // may be null: falls back to Manhattan distance
+
+    private final float[] cost;
+    private final int[] parent;
+    private final int[] stamp;
+    private final boolean[] closed;
+    private final IndexedMinHeap open;
+    private final int[] pathBuffer;
+    private int generation = 0;
+
+    private int pathLength = 0;
+    private float pathCost = UNREACHED;
+    private int expanded = 0;
+    private int generated = 0;
+
+    public GridSearch(final MazeGraph graph,
+                      final MazeDistanceTable distances)
+    {
+        this.graph = graph;
+        this.distances = distances;
+        int n = graph.getNumTiles();
+        this.cost = new float[n];
+        this.parent = new int[n];
+        this.stamp = new int[n];
+        this.closed = new boolean[n];
+        this.open = new IndexedMinHeap(n);
+        this.pathBuffer = new int[n];
+    }
+
+    public final MazeGraph getGraph() { return this.graph; }
+
+    @Override
+    public final int getPathLength() { return this.pathLength; }
+
+    @Override
+    public final int getPathTile(final int i) { return this.pathBuffer[i]; }
+
+    @Override
+    public final float getPathCost() { return this.pathCost; }
+
+    @Override
+    public final int getNodesExpanded() { return this.expanded; }
+
+    @Override
+    public final int getNodesGenerated() { return this.generated; }
+
+    @Override
+    public final int getOpenPeak() { return this.open.getPeakSize(); }
+
+    /**
+     * Finds the cheapest path from start to goal. risk may be null for a uniform-cost search.
+     * Returns false if the goal cannot be reached.
+     */
+    @Override
+    public boolean search(final int start, final int goal, final float[] risk)
+    {
+        this.pathLength = 0;
+        this.pathCost = UNREACHED;
+        this.expanded = 0;
+        this.generated = 0;
+        if (start == MazeGraph.NO_TILE || goal == MazeGraph.NO_TILE) return false;
+
+        if (++this.generation == 0) { // stamp counter wrapped: invalidate everything once
+            java.util.Arrays.fill(this.stamp, 0);
+            this.generation = 1;
+        }
+        this.open.clear();
+
+        this.touch(start);
+        this.cost[start] = 0f;
+        this.parent[start] = MazeGraph.NO_TILE;
+        this.open.put(start, this.heuristic(start, goal));
+
+        while (!this.open.isEmpty()) {
+            int here = this.open.poll();
+            if (here == goal) {
+                this.recordPath(goal);
+                return true;
+            }
+            this.closed[here] = true;
+            this.expanded++;
+
+            int mask = this.graph.getMoveMask(here);
+            while (mask != 0) {
+                int d = Integer.numberOfTrailingZeros(mask);
+                mask &= mask - 1;
+
+                int next = this.graph.getNeighbor(here, d);
+                this.generated++;
+                boolean seen = this.stamp[next] == this.generation;
+                if (seen && this.closed[next]) continue;
+
+                float step = 1f + (risk == null ? 0f : risk[next]);
+                float newCost = this.cost[here] + step;
+                if (!seen || newCost < this.cost[next]) {
+                    if (!seen) this.touch(next);
+                    this.cost[next] = newCost;
+                    this.parent[next] = here;
+                    this.open.put(next, newCost + this.heuristic(next, goal));
+                }
+            }
+        }
+        return false;
+    }
+
+    private void touch(final int tile)
+    {
+        this.stamp[tile] = this.generation;
+        this.closed[tile] = false;
+    }
+
+    private float heuristic(final int tile, final int goal)
+    {
+        if (this.distances != null) {
+            int d = this.distances.getDistance(goal, tile); // maze moves are symmetric: one row serves the whole search
+            return d == MazeDistanceTable.UNREACHABLE ? UNREACHED : d;
+        }
+        int dx = this.graph.getCoordinate(tile).getXCoordinate() - this.graph.getCoordinate(goal).getXCoordinate();
+        int dy = this.graph.getCoordinate(tile).getYCoordinate() - this.graph.getCoordinate(goal).getYCoordinate();
+        return Math.abs(dx) + Math.abs(dy);
+    }
+
+    private void recordPath(final int goal)
+    {
+        int n = 0;
+        for (int t = goal; t != MazeGraph.NO_TILE; t = this.parent[t]) n++;
+        this.pathLength = n;
+        for (int t = goal; t != MazeGraph.NO_TILE; t = this.parent[t]) this.pathBuffer[--n] = t;
+        this.pathCost = this.cost[goal];
+    }
+}
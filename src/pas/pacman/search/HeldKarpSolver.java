@@ -0,0 +1,118 @@
+package src.pas.pacman.search;
+
+
+// SYSTEM IMPORTS
+import java.util.Arrays;
+
+
+// JAVA PROJECT IMPORTS
+import src.pas.pacman.graph.MazeDistanceTable;
+
+
+/**
+ * Exact shortest pellet tour by dynamic programming over pellet subsets (Held-Karp).
+ *
+ * cost[mask][j] is the length of the shortest walk that starts on Pacman's tile, eats
+ * exactly the pellets in mask and ends on pellet j. Time is O(2^k * k^2) and memory
+ * O(2^k * k) for k pellets, so this is only used when few pellets are left.
+ */
+public class HeldKarpSolver
+    extends Object
+{
+
+    // 2^20 * 20 entries is ~100MB of tables; anything larger belongs to the other planners
+    public static final int MAX_PELLETS = 20;
+
+    private static final int INF = Integer.MAX_VALUE;
+    private static final int INTERRUPT_CHECK_MASKS = 1 << 10; // subsets filled between interrupt checks
+
+    private final MazeDistanceTable distances;
+
+    private int[] order = null;
+    private int tourCost = INF;
+
+    public HeldKarpSolver(final MazeDistanceTable distances)
+    {
+        this.distances = distances;
+    }
+
+    /** Pellet indices in eating order from the last successful solve. */
+    public final int[] getOrder() { return this.order; }
+    public final int getTourCost() { return this.tourCost; }
+
+    /**
+     * Solves the open tour from startTile over every pellet in the index.
+     * Returns false if there are too many pellets or one of them is unreachable, or if the
+     * calling thread is interrupted before the tables are filled.
+     */
+    public boolean solve(final int startTile, final PelletIndex pellets)
+    {
+        this.order = null;
+        this.tourCost = INF;
+
+        final int k = pellets.getNumPellets();
+        if (k > MAX_PELLETS) return false;
+        if (k == 0) {
+            this.order = new int[0];
+            this.tourCost = 0;
+            return true;
+        }
+
+        int[] tiles = new int[k];
+        for (int i = 0; i < k; i++) tiles[i] = pellets.getPelletTile(i);
+
+        final int full = (1 << k) - 1;
+        int[] cost = new int[(full + 1) * k];
+        byte[] prev = new byte[(full + 1) * k];
+        Arrays.fill(cost, INF);
+
+        for (int j = 0; j < k; j++) {
+            int d = this.distances.getDistance(startTile, tiles[j]);
+            if (d == MazeDistanceTable.UNREACHABLE) return false;
+            cost[(1 << j) * k + j] = d;
+            prev[(1 << j) * k + j] = -1;
+        }
+
+        for (int mask = 1; mask <= full; mask++) {
+            if ((mask % INTERRUPT_CHECK_MASKS) == 0 && Thread.currentThread().isInterrupted()) return false;
+            for (int j = 0; j < k; j++) {
+                int here = cost[mask * k + j];
+                if (here == INF) continue; // also skips j not in mask
+
+                int missing = full & ~mask;
+                while (missing != 0) {
+                    int next = Integer.numberOfTrailingZeros(missing);
+                    missing &= missing - 1;
+
+                    int d = this.distances.getDistance(tiles[j], tiles[next]);
+                    if (d == MazeDistanceTable.UNREACHABLE) continue;
+
+                    int slot = (mask | (1 << next)) * k + next;
+                    if (here + d < cost[slot]) {
+                        cost[slot] = here + d;
+                        prev[slot] = (byte) j;
+                    }
+                }
+            }
+        }
+
+        int last = -1;
+        for (int j = 0; j < k; j++) {
+            if (cost[full * k + j] < this.tourCost) {
+                this.tourCost = cost[full * k + j];
+                last = j;
+            }
+        }
+        if (last < 0) return false;
+
+        this.order = new int[k];
+        int mask = full;
+        for (int pos = k - 1; pos >= 0; pos--) {
+            this.order[pos] = last;
+            int before = prev[mask * k + last];
+            mask &= ~(1 << last);
+            last = before;
+        }
+        return true;
+    }
+}
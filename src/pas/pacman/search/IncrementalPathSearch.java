@@ -0,0 +1,301 @@
+package src.pas.pacman.search;
+
+
+// SYSTEM IMPORTS
+import java.util.Arrays;
+
+
+// JAVA PROJECT IMPORTS
+import src.pas.pacman.graph.MazeDistanceTable;
+import src.pas.pacman.graph.MazeGraph;
+
+
+/**
+ * D* Lite over the tiles of a MazeGraph: a point-to-point search that keeps its state
+ * between calls while the goal stays the same.
+ *
+ * The search runs backwards from the goal, so g[t] is the cost from t to the goal and the
+ * start tile is free to move. Callers report tiles whose risk changed via riskChanged();
+ * the next search() only repairs the predecessors of those tiles and re-expands what the
+ * change actually affects. A new goal, or a different risk array, starts over from scratch.
+ * Entering a tile costs 1 plus its risk, as in GridSearch.
+ */
+public class IncrementalPathSearch
+    extends Object
+    implements TilePathSearch
+{
+
+    public static final float UNREACHED = Float.POSITIVE_INFINITY;
+
+    private final MazeGraph graph;
+    private final MazeDistanceTable distances;
+    private final int[] predecessors;   // tile * 4 + d -> tile that moves into it, or NO_TILE
+
+    private final float[] g;
+    private final float[] rhs;
+    private final int[] stamp;
+    private final IndexedMinHeap open;
+    private int generation = 0;
+
+    // search state kept between calls
+    private int goal = MazeGraph.NO_TILE;
+    private int lastStart = MazeGraph.NO_TILE;
+    private float[] risk = null;
+    private float km = 0f;
+
+    // tiles whose risk changed since the last search
+    private final int[] pending;
+    private final boolean[] isPending;
+    private int pendingCount = 0;
+
+    private final int[] pathBuffer;
+    private int pathLength = 0;
+    private float pathCost = UNREACHED;
+    private int expanded = 0;
+    private int generated = 0;
+    private boolean lastSearchWasRepair = false;
+
+    public IncrementalPathSearch(final MazeGraph graph,
+                                 final MazeDistanceTable distances)
+    {
+        this.graph = graph;
+        this.distances = distances;
+        int n = graph.getNumTiles();
+        this.g = new float[n];
+        this.rhs = new float[n];
+        this.stamp = new int[n];
+        this.open = new IndexedMinHeap(n);
+        this.pending = new int[n];
+        this.isPending = new boolean[n];
+        this.pathBuffer = new int[n];
+
+        this.predecessors = new int[n * 4];
+        Arrays.fill(this.predecessors, MazeGraph.NO_TILE);
+        for (int t = 0; t < n; t++) {
+            for (int d = 0; d < 4; d++) {
+                int nb = graph.getNeighbor(t, d);
+                if (nb != MazeGraph.NO_TILE) this.predecessors[nb * 4 + MazeGraph.opposite(d)] = t;
+            }
+        }
+    }
+
+    public final MazeGraph getGraph() { return this.graph; }
+
+    @Override
+    public final int getPathLength() { return this.pathLength; }
+
+    @Override
+    public final int getPathTile(final int i) { return this.pathBuffer[i]; }
+
+    @Override
+    public final float getPathCost() { return this.pathCost; }
+
+    @Override
+    public final int getNodesExpanded() { return this.expanded; }
+
+    @Override
+    public final int getNodesGenerated() { return this.generated; }
+
+    @Override
+    public final int getOpenPeak() { return this.open.getPeakSize(); }
+
+    /** True if the last search() repaired the previous one instead of starting over. */
+    public final boolean wasLastSearchRepair() { return this.lastSearchWasRepair; }
+
+    public final boolean hasPendingChanges() { return this.pendingCount > 0; }
+
+    @Override
+    public void riskChanged(final int tile)
+    {
+        if (!this.isPending[tile]) {
+            this.isPending[tile] = true;
+            this.pending[this.pendingCount++] = tile;
+        }
+    }
+
+    @Override
+    public boolean search(final int start, final int goal, final float[] risk)
+    {
+        this.pathLength = 0;
+        this.pathCost = UNREACHED;
+        this.expanded = 0;
+        this.generated = 0;
+        this.open.resetPeakSize(); // the queue carries over between repairs
+        if (start == MazeGraph.NO_TILE || goal == MazeGraph.NO_TILE) return false;
+
+        this.lastSearchWasRepair = goal == this.goal && risk == this.risk && this.lastStart != MazeGraph.NO_TILE;
+        if (this.lastSearchWasRepair && start != this.lastStart) {
+            int moved = this.distances.getDistance(start, this.lastStart); // start's row, which heuristic() reads too
+            if (moved == MazeDistanceTable.UNREACHABLE) {
+                this.lastSearchWasRepair = false;
+            } else {
+                this.km += moved; // keys already queued are now too small by at most this much
+                this.lastStart = start;
+            }
+        }
+
+        if (this.lastSearchWasRepair) {
+            for (int i = 0; i < this.pendingCount; i++) {
+                int tile = this.pending[i];
+                // every edge into tile changed cost: refresh the tiles those edges leave from
+                for (int d = 0; d < 4; d++) {
+                    int pred = this.predecessors[tile * 4 + d];
+                    if (pred != MazeGraph.NO_TILE) this.updateVertex(pred, start);
+                }
+            }
+        } else {
+            this.reset(start, goal, risk);
+        }
+        this.clearPending();
+
+        this.computeShortestPath(start);
+        if (this.getG(start) == UNREACHED) return false;
+        return this.recordPath(start);
+    }
+
+    private void reset(final int start, final int goal, final float[] risk)
+    {
+        if (++this.generation == 0) {
+            Arrays.fill(this.stamp, 0);
+            this.generation = 1;
+        }
+        this.open.clear();
+        this.goal = goal;
+        this.risk = risk;
+        this.lastStart = start;
+        this.km = 0f;
+
+        this.touch(goal);
+        this.rhs[goal] = 0f;
+        this.open.put(goal, this.heuristic(start, goal), 0f);
+    }
+
+    private void clearPending()
+    {
+        for (int i = 0; i < this.pendingCount; i++) this.isPending[this.pending[i]] = false;
+        this.pendingCount = 0;
+    }
+
+    private void computeShortestPath(final int start)
+    {
+        while (!this.open.isEmpty()) {
+            float startRhs = this.getRhs(start);
+            float startG = this.getG(start);
+            float startK1 = Math.min(startG, startRhs) + this.heuristic(start, start) + this.km;
+            float startK2 = Math.min(startG, startRhs);
+            float topK1 = this.open.peekKey();
+            float topK2 = this.open.peekTie();
+            boolean topBeforeStart = topK1 < startK1 || (topK1 == startK1 && topK2 < startK2);
+            if (!topBeforeStart && startRhs == startG) break;
+
+            int u = this.open.peek();
+            float gu = this.getG(u);
+            float ru = this.getRhs(u);
+            float newK2 = Math.min(gu, ru);
+            float newK1 = newK2 + this.heuristic(start, u) + this.km;
+            if (topK1 < newK1 || (topK1 == newK1 && topK2 < newK2)) {
+                this.open.put(u, newK1, newK2); // key went stale after Pacman moved
+                continue;
+            }
+
+            this.open.poll();
+            this.expanded++;
+            if (gu > ru) {
+                this.g[u] = ru; // over-consistent: settle it
+            } else {
+                this.g[u] = UNREACHED; // under-consistent: raise it and let it settle again
+                this.updateVertex(u, start);
+            }
+            for (int d = 0; d < 4; d++) {
+                int pred = this.predecessors[u * 4 + d];
+                if (pred != MazeGraph.NO_TILE) this.updateVertex(pred, start);
+            }
+        }
+    }
+
+    private void updateVertex(final int u, final int start)
+    {
+        this.generated++;
+        this.touchIfStale(u);
+        if (u != this.goal) this.rhs[u] = this.bestSuccessorCost(u);
+
+        if (this.g[u] != this.rhs[u]) {
+            float k2 = Math.min(this.g[u], this.rhs[u]);
+            this.open.put(u, k2 + this.heuristic(start, u) + this.km, k2);
+        } else {
+            this.open.remove(u);
+        }
+    }
+
+    private float bestSuccessorCost(final int u)
+    {
+        float best = UNREACHED;
+        int mask = this.graph.getMoveMask(u);
+        while (mask != 0) {
+            int d = Integer.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+            int next = this.graph.getNeighbor(u, d);
+            best = Math.min(best, this.stepCost(next) + this.getG(next));
+        }
+        return best;
+    }
+
+    private float stepCost(final int next)
+    {
+        return 1f + (this.risk == null ? 0f : this.risk[next]);
+    }
+
+    // Lower bound on the cost of reaching tile from start; 0 where the table has no path
+    private float heuristic(final int start, final int tile)
+    {
+        int d = this.distances.getDistance(start, tile);
+        return d == MazeDistanceTable.UNREACHABLE ? 0f : d;
+    }
+
+    private float getG(final int tile) { return this.stamp[tile] == this.generation ? this.g[tile] : UNREACHED; }
+    private float getRhs(final int tile) { return this.stamp[tile] == this.generation ? this.rhs[tile] : UNREACHED; }
+
+    private void touchIfStale(final int tile)
+    {
+        if (this.stamp[tile] != this.generation) this.touch(tile);
+    }
+
+    private void touch(final int tile)
+    {
+        this.stamp[tile] = this.generation;
+        this.g[tile] = UNREACHED;
+        this.rhs[tile] = UNREACHED;
+    }
+
+    // Walks downhill in g from start; every step picks the successor with the cheapest cost-to-goal
+    private boolean recordPath(final int start)
+    {
+        int n = 0;
+        int here = start;
+        float cost = 0f;
+        this.pathBuffer[n++] = here;
+        while (here != this.goal) {
+            if (n == this.pathBuffer.length) return false; // inconsistent g values: refuse rather than loop
+            int bestNext = MazeGraph.NO_TILE;
+            float best = UNREACHED;
+            int mask = this.graph.getMoveMask(here);
+            while (mask != 0) {
+                int d = Integer.numberOfTrailingZeros(mask);
+                mask &= mask - 1;
+                int next = this.graph.getNeighbor(here, d);
+                float c = this.stepCost(next) + this.getG(next);
+                if (c < best) {
+                    best = c;
+                    bestNext = next;
+                }
+            }
+            if (bestNext == MazeGraph.NO_TILE) return false;
+            cost += this.stepCost(bestNext);
+            here = bestNext;
+            this.pathBuffer[n++] = here;
+        }
+        this.pathLength = n;
+        this.pathCost = cost;
+        return true;
+    }
+}
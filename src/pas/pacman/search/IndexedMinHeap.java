@@ -0,0 +1,147 @@
+package src.pas.pacman.search;
+
+
+// SYSTEM IMPORTS
+
+
+// JAVA PROJECT IMPORTS
+
+
+/**
+ * Binary min-heap over the integers [0, capacity) with float keys and O(log n)
+ * decrease-key. Each item's heap slot is tracked in a position array, so the
+ * heap never holds duplicates and never allocates after construction. Equal
+ * keys are ordered by an optional secondary key.
+ */
+public class IndexedMinHeap
+    extends Object
+{
+
+    private static final int ABSENT = -1;
+
+    private final int[] heap;       // slot -> item
+    private final int[] position;   // item -> slot (or ABSENT)
+    private final float[] keys;     // item -> key
+    private final float[] ties;     // item -> secondary key
+    private int size = 0;
+    private int peakSize = 0;
+
+    public IndexedMinHeap(final int capacity)
+    {
+        this.heap = new int[capacity];
+        this.position = new int[capacity];
+        this.keys = new float[capacity];
+        this.ties = new float[capacity];
+        java.util.Arrays.fill(this.position, ABSENT);
+    }
+
+    public final int size() { return this.size; }
+    public final boolean isEmpty() { return this.size == 0; }
+    public final boolean contains(final int item) { return this.position[item] != ABSENT; }
+    public final float getKey(final int item) { return this.keys[item]; }
+    public final int peek() { return this.heap[0]; }
+    public final float peekKey() { return this.keys[this.heap[0]]; }
+    public final float peekTie() { return this.ties[this.heap[0]]; }
+
+    /** Largest size since the last clear() or resetPeakSize(). */
+    public final int getPeakSize() { return this.peakSize; }
+
+    /** Restarts peak tracking from the current size, for searches that keep the heap between calls. */
+    public void resetPeakSize() { this.peakSize = this.size; }
+
+    /** Empties the heap in O(size). */
+    public void clear()
+    {
+        for (int i = 0; i < this.size; i++) this.position[this.heap[i]] = ABSENT;
+        this.size = 0;
+        this.peakSize = 0;
+    }
+
+    /** Inserts item, or changes its key if it is already queued. */
+    public void put(final int item, final float key)
+    {
+        this.put(item, key, 0f);
+    }
+
+    /** Inserts item, or changes its keys if it is already queued; ordered by (key, tie). */
+    public void put(final int item, final float key, final float tie)
+    {
+        int slot = this.position[item];
+        if (slot == ABSENT) {
+            slot = this.size++;
+            if (this.size > this.peakSize) this.peakSize = this.size;
+            this.heap[slot] = item;
+            this.position[item] = slot;
+            this.keys[item] = key;
+            this.ties[item] = tie;
+            this.siftUp(slot);
+        } else {
+            this.keys[item] = key;
+            this.ties[item] = tie;
+            this.siftUp(slot);
+            this.siftDown(this.position[item]);
+        }
+    }
+
+    private boolean less(final int a, final int b)
+    {
+        return this.keys[a] < this.keys[b] || (this.keys[a] == this.keys[b] && this.ties[a] < this.ties[b]);
+    }
+
+    public int poll()
+    {
+        int top = this.heap[0];
+        this.removeAt(0);
+        return top;
+    }
+
+    public void remove(final int item)
+    {
+        int slot = this.position[item];
+        if (slot != ABSENT) this.removeAt(slot);
+    }
+
+    private void removeAt(final int slot)
+    {
+        int item = this.heap[slot];
+        this.position[item] = ABSENT;
+        int last = this.heap[--this.size];
+        if (slot < this.size) {
+            this.heap[slot] = last;
+            this.position[last] = slot;
+            this.siftDown(slot);
+            this.siftUp(this.position[last]);
+        }
+    }
+
+    private void siftUp(int slot)
+    {
+        int item = this.heap[slot];
+        while (slot > 0) {
+            int parentSlot = (slot - 1) >>> 1;
+            int parent = this.heap[parentSlot];
+            if (!this.less(item, parent)) break;
+            this.heap[slot] = parent;
+            this.position[parent] = slot;
+            slot = parentSlot;
+        }
+        this.heap[slot] = item;
+        this.position[item] = slot;
+    }
+
+    private void siftDown(int slot)
+    {
+        int item = this.heap[slot];
+        while (true) {
+            int child = 2 * slot + 1;
+            if (child >= this.size) break;
+            if (child + 1 < this.size && this.less(this.heap[child + 1], this.heap[child])) child++;
+            if (!this.less(this.heap[child], item)) break;
+            this.heap[slot] = this.heap[child];
+            this.position[this.heap[slot]] = slot;
+            slot = child;
+        }
+        this.heap[slot] = item;
+        this.position[item] = slot;
+    }
+}
@@ -0,0 +1,251 @@
+package src.pas.pacman.search;
+
+
+// SYSTEM IMPORTS
+import java.util.Arrays;
+
+
+// JAVA PROJECT IMPORTS
+import src.pas.pacman.graph.MazeDistanceTable;
+import src.pas.pacman.graph.MazeGraph;
+
+
+/**
+ * Jump point search (4-connected) for uniform-cost point-to-point queries on a MazeGraph.
+ *
+ * A* only queues jump points: the start, the goal, tiles with a forced neighbor, and tiles on
+ * a vertical run from which a horizontal run reaches one of those. Runs of equivalent tiles
+ * in between are skipped without touching the open list. Canonical paths go vertically first
+ * and turn horizontally, and only turn vertically again where a wall forces it. Forced
+ * neighbors are tested on legal moves rather than on walkable cells, so one-way moves such
+ * as those out of the ghost pen are handled.
+ *
+ * Every step costs 1 and the risk array is ignored: use it only where risk is zero along the
+ * way, and fall back to GridSearch or JunctionSearch otherwise.
+ *
+ * The heuristic is the exact maze distance, so plain A* already expands only tiles on a
+ * shortest path; jump points save heap operations on long straight runs, but each step of a
+ * vertical run also scans both horizontal runs from it. Measure before preferring it.
+ */
+public class JumpPointSearch
+    extends Object
+    implements TilePathSearch
+{
+
+    private static final int NORTH = 0;
+    private static final int SOUTH = 1;
+    private static final int EAST = 2;
+    private static final int WEST = 3;
+    private static final int NO_DIRECTION = -1;
+
+    private final MazeGraph graph;
+    private final MazeDistanceTable distances;
+
+    private final float[] cost;
+    private final int[] parent;
+    private final int[] arrivedBy;  // direction of the jump that reached the tile
+    private final int[] stamp;
+    private final boolean[] closed;
+    private final IndexedMinHeap open;
+    private final int[] pathBuffer;
+    private int generation = 0;
+
+    private int goal = MazeGraph.NO_TILE;
+    private int jumpLength = 0;     // steps taken by the last jump that found a jump point
+    private int pathLength = 0;
+    private float pathCost = Float.POSITIVE_INFINITY;
+    private int expanded = 0;
+    private int generated = 0;
+
+    public JumpPointSearch(final MazeGraph graph,
+                           final MazeDistanceTable distances)
+    {
+        this.graph = graph;
+        this.distances = distances;
+        int n = graph.getNumTiles();
+        this.cost = new float[n];
+        this.parent = new int[n];
+        this.arrivedBy = new int[n];
+        this.stamp = new int[n];
+        this.closed = new boolean[n];
+        this.open = new IndexedMinHeap(n);
+        this.pathBuffer = new int[n];
+    }
+
+    public final MazeGraph getGraph() { return this.graph; }
+
+    @Override
+    public final int getPathLength() { return this.pathLength; }
+
+    @Override
+    public final int getPathTile(final int i) { return this.pathBuffer[i]; }
+
+    @Override
+    public final float getPathCost() { return this.pathCost; }
+
+    /** Jump points expanded by the last search. */
+    @Override
+    public final int getNodesExpanded() { return this.expanded; }
+
+    /** Tiles stepped over by the last search's jumps. */
+    @Override
+    public final int getNodesGenerated() { return this.generated; }
+
+    @Override
+    public final int getOpenPeak() { return this.open.getPeakSize(); }
+
+    /** Shortest path by number of moves; risk is ignored (see the class comment). */
+    @Override
+    public boolean search(final int start, final int goal, final float[] risk)
+    {
+        this.pathLength = 0;
+        this.pathCost = Float.POSITIVE_INFINITY;
+        this.expanded = 0;
+        this.generated = 0;
+        this.open.clear();
+        if (start == MazeGraph.NO_TILE || goal == MazeGraph.NO_TILE) return false;
+        if (this.distances.getDistance(start, goal) == MazeDistanceTable.UNREACHABLE) return false;
+
+        if (++this.generation == 0) {
+            Arrays.fill(this.stamp, 0);
+            this.generation = 1;
+        }
+        this.goal = goal;
+
+        this.touch(start);
+        this.cost[start] = 0f;
+        this.parent[start] = MazeGraph.NO_TILE;
+        this.arrivedBy[start] = NO_DIRECTION;
+        this.open.put(start, this.heuristic(start), 0f);
+
+        while (!this.open.isEmpty()) {
+            int here = this.open.poll();
+            if (here == goal) {
+                this.recordPath(start, goal);
+                return true;
+            }
+            this.closed[here] = true;
+            this.expanded++;
+
+            int dir = this.arrivedBy[here];
+            for (int d = 0; d < 4; d++) {
+                if (this.isSuccessorDirection(here, dir, d)) this.jumpFrom(here, d);
+            }
+        }
+        return false;
+    }
+
+    // Pruning rule: which directions a jump point is expanded in, given how it was reached
+    private boolean isSuccessorDirection(final int tile, final int arrivedBy, final int d)
+    {
+        if (this.graph.getNeighbor(tile, d) == MazeGraph.NO_TILE) return false;
+        if (arrivedBy == NO_DIRECTION) return true;                 // start: everything
+        if (d == MazeGraph.opposite(arrivedBy)) return false;       // never straight back
+        if (d == arrivedBy) return true;                            // keep going
+        if (isVertical(arrivedBy)) return true;                     // vertical runs turn freely
+        int behind = this.graph.getAdjacentTile(tile, MazeGraph.opposite(arrivedBy));
+        return this.isForced(tile, behind, d, arrivedBy);          // horizontal runs turn only when forced
+    }
+
+    private void jumpFrom(final int tile, final int d)
+    {
+        int jumpPoint = isVertical(d) ? this.jumpVertical(tile, d) : this.jumpHorizontal(tile, d);
+        if (jumpPoint == MazeGraph.NO_TILE) return;
+
+        boolean seen = this.stamp[jumpPoint] == this.generation;
+        if (seen && this.closed[jumpPoint]) return;
+        float newCost = this.cost[tile] + this.jumpLength;
+        if (seen && newCost >= this.cost[jumpPoint]) return;
+        if (!seen) this.touch(jumpPoint);
+        this.cost[jumpPoint] = newCost;
+        this.parent[jumpPoint] = tile;
+        this.arrivedBy[jumpPoint] = d;
+        this.open.put(jumpPoint, newCost + this.heuristic(jumpPoint), -newCost); // deeper first on ties
+    }
+
+    // The jump point reached by running from tile in direction d, or NO_TILE; sets jumpLength
+    private int jumpHorizontal(int tile, final int d)
+    {
+        for (int steps = 1; ; steps++) {
+            int next = this.graph.getNeighbor(tile, d);
+            if (next == MazeGraph.NO_TILE) return MazeGraph.NO_TILE;
+            this.generated++;
+            if (next == this.goal || this.isForced(next, tile, NORTH, d) || this.isForced(next, tile, SOUTH, d)) {
+                this.jumpLength = steps;
+                return next;
+            }
+            tile = next;
+        }
+    }
+
+    private int jumpVertical(int tile, final int d)
+    {
+        for (int steps = 1; ; steps++) {
+            int next = this.graph.getNeighbor(tile, d);
+            if (next == MazeGraph.NO_TILE) return MazeGraph.NO_TILE;
+            this.generated++;
+            if (next == this.goal || this.isForced(next, tile, EAST, d) || this.isForced(next, tile, WEST, d)
+                || this.hasHorizontalJumpPoint(next)) {
+                this.jumpLength = steps;
+                return next;
+            }
+            tile = next;
+        }
+    }
+
+    // True if a horizontal run from tile reaches a jump point
+    private boolean hasHorizontalJumpPoint(final int tile)
+    {
+        for (int h = EAST; h <= WEST; h++) {
+            if (this.graph.getNeighbor(tile, h) != MazeGraph.NO_TILE
+                && this.jumpHorizontal(tile, h) != MazeGraph.NO_TILE) return true;
+        }
+        return false;
+    }
+
+    /**
+     * True if tile, entered from behind while moving in direction travel, must branch in
+     * direction side: the side move is legal, and the equally short detour through behind's
+     * side (behind, side step, then travel) is not available.
+     */
+    private boolean isForced(final int tile, final int behind, final int side, final int travel)
+    {
+        if (this.graph.getNeighbor(tile, side) == MazeGraph.NO_TILE) return false;
+        if (behind == MazeGraph.NO_TILE) return true;
+        int beside = this.graph.getNeighbor(behind, side);
+        return beside == MazeGraph.NO_TILE || this.graph.getNeighbor(beside, travel) == MazeGraph.NO_TILE;
+    }
+
+    private static boolean isVertical(final int d) { return d == NORTH || d == SOUTH; }
+
+    private float heuristic(final int tile)
+    {
+        return this.distances.getDistance(this.goal, tile); // exact maze distance from goal's row, reachable by construction
+    }
+
+    private void touch(final int tile)
+    {
+        this.stamp[tile] = this.generation;
+        this.closed[tile] = false;
+    }
+
+    // Fills in the tiles between consecutive jump points; every jump is a straight run
+    private void recordPath(final int start, final int goal)
+    {
+        int n = 0;
+        for (int t = goal; t != start; t = this.parent[t]) {
+            int d = this.arrivedBy[t];
+            for (int step = t; step != this.parent[t]; step = this.graph.getAdjacentTile(step, MazeGraph.opposite(d))) {
+                this.pathBuffer[n++] = step;
+            }
+        }
+        this.pathBuffer[n++] = start;
+        for (int i = 0, j = n - 1; i < j; i++, j--) {
+            int tmp = this.pathBuffer[i];
+            this.pathBuffer[i] = this.pathBuffer[j];
+            this.pathBuffer[j] = tmp;
+        }
+        this.pathLength = n;
+        this.pathCost = this.cost[goal];
+    }
+}
@@ -0,0 +1,300 @@
+package src.pas.pacman.search;
+
+
+// SYSTEM IMPORTS
+import java.util.Arrays;
+
+
+// JAVA PROJECT IMPORTS
+import src.pas.pacman.graph.JunctionGraph;
+import src.pas.pacman.graph.MazeDistanceTable;
+import src.pas.pacman.graph.MazeGraph;
+
+
+/**
+ * A* over a JunctionGraph: the heap only ever holds junctions and dead ends, and whole
+ * corridors are relaxed in one step. Start and goal tiles in the middle of a corridor are
+ * attached to that corridor's two endpoints. The tile-by-tile path is only expanded once
+ * the goal is reached.
+ *
+ * Costs match GridSearch exactly: entering a tile costs 1 plus its risk. A corridor's risk
+ * sum is computed the first time a search touches it and cached for that search.
+ */
+public class JunctionSearch
+    extends Object
+    implements TilePathSearch
+{
+
+    private static final int NONE = JunctionGraph.NONE;
+    private static final int TOWARD_A = -1;
+    private static final int TOWARD_B = 1;
+
+    private final JunctionGraph graph;
+    private final MazeDistanceTable distances; // may be null: heuristic is then 0
+
+    // per-vertex search state (the extra slot V is the goal when it sits inside a corridor)
+    private final float[] cost;
+    private final int[] parentVertex;
+    private final int[] parentEdge;
+    private final int[] seedDirection;     // for vertices seeded from a corridor start: which way we walked
+    private final int[] stamp;
+    private final boolean[] closed;
+    private final IndexedMinHeap open;
+
+    // per-edge risk cache
+    private final float[] edgeRisk;
+    private final int[] edgeRiskStamp;
+
+    private int generation = 0;
+    private float[] risk = null;
+
+    private final int[] pathBuffer;
+    private final int[] vertexChain;
+    private int pathLength = 0;
+    private float pathCost = Float.POSITIVE_INFINITY;
+    private int expanded = 0;
+    private int generated = 0;
+
+    public JunctionSearch(final JunctionGraph graph,
+                          final MazeDistanceTable distances)
+    {
+        this.graph = graph;
+        this.distances = distances;
+        int v = graph.getNumVertices() + 1;
+        this.cost = new float[v];
+        this.parentVertex = new int[v];
+        this.parentEdge = new int[v];
+        this.seedDirection = new int[v];
+        this.stamp = new int[v];
+        this.closed = new boolean[v];
+        this.open = new IndexedMinHeap(v);
+        this.edgeRisk = new float[graph.getNumEdges()];
+        this.edgeRiskStamp = new int[graph.getNumEdges()];
+        this.pathBuffer = new int[graph.getMaze().getNumTiles()];
+        this.vertexChain = new int[v];
+    }
+
+    public final JunctionGraph getGraph() { return this.graph; }
+
+    @Override
+    public final int getPathLength() { return this.pathLength; }
+
+    @Override
+    public final int getPathTile(final int i) { return this.pathBuffer[i]; }
+
+    @Override
+    public final float getPathCost() { return this.pathCost; }
+
+    @Override
+    public final int getNodesExpanded() { return this.expanded; }
+
+    @Override
+    public final int getNodesGenerated() { return this.generated; }
+
+    @Override
+    public final int getOpenPeak() { return this.open.getPeakSize(); }
+
+    @Override
+    public boolean search(final int start, final int goal, final float[] risk)
+    {
+        this.pathLength = 0;
+        this.pathCost = Float.POSITIVE_INFINITY;
+        this.expanded = 0;
+        this.generated = 0;
+        this.open.clear();
+        if (start == MazeGraph.NO_TILE || goal == MazeGraph.NO_TILE) return false;
+
+        if (start == goal) {
+            this.pathBuffer[0] = start;
+            this.pathLength = 1;
+            this.pathCost = 0f;
+            return true;
+        }
+
+        if (++this.generation == 0) {
+            Arrays.fill(this.stamp, 0);
+            Arrays.fill(this.edgeRiskStamp, 0);
+            this.generation = 1;
+        }
+        this.risk = risk;
+
+        final int goalSlot = this.graph.getNumVertices();
+        final int goalVertex = this.graph.getVertexOfTile(goal);
+        final int goalEdge = this.graph.getEdgeOfTile(goal);
+        final int target = goalVertex != NONE ? goalVertex : goalSlot;
+
+        this.seed(start, goal, goalEdge, goalSlot);
+
+        while (!this.open.isEmpty()) {
+            int v = this.open.poll();
+            if (v == target) {
+                this.pathCost = this.cost[v];
+                this.expandPath(start, goal, goalVertex, goalEdge, goalSlot);
+                return true;
+            }
+            this.closed[v] = true;
+            this.expanded++;
+
+            final int tile = this.graph.getTileOfVertex(v);
+            for (int i = 0; i < this.graph.getDegree(v); i++) {
+                int e = this.graph.getIncidentEdge(v, i);
+                if (!this.graph.canLeave(e, v)) continue;
+                int w = this.graph.getOtherEnd(e, v);
+                float through = this.cost[v] + this.graph.getEdgeLength(e) + this.riskOfEdge(e) + this.riskOf(this.graph.getTileOfVertex(w));
+                this.relax(w, through, v, e, 0, goal);
+
+                // goal sits inside this corridor: step in from this end (from both ends of a loop back to v)
+                if (e == goalEdge) {
+                    if (this.graph.getEdgeA(e) == v) this.relaxIntoCorridor(v, e, TOWARD_B, goal, goalSlot);
+                    if (this.graph.getEdgeB(e) == v) this.relaxIntoCorridor(v, e, TOWARD_A, goal, goalSlot);
+                }
+            }
+        }
+        return false;
+    }
+
+    // Puts the start (or the two ends of its corridor) on the heap
+    private void seed(final int start, final int goal, final int goalEdge, final int goalSlot)
+    {
+        int startVertex = this.graph.getVertexOfTile(start);
+        if (startVertex != NONE) {
+            this.relax(startVertex, 0f, NONE, NONE, 0, goal);
+            return;
+        }
+
+        int e = this.graph.getEdgeOfTile(start);
+        int offset = this.graph.getOffsetOfTile(start);
+        int m = this.graph.getNumInteriorTiles(e);
+
+        this.relax(this.graph.getEdgeA(e), this.walkCost(e, offset, 0, TOWARD_A), NONE, e, TOWARD_A, goal);
+        this.relax(this.graph.getEdgeB(e), this.walkCost(e, offset, m + 1, TOWARD_B), NONE, e, TOWARD_B, goal);
+
+        // start and goal in the same corridor: walking straight there is also a candidate
+        if (e == goalEdge) {
+            int g = this.graph.getOffsetOfTile(goal);
+            int dir = g > offset ? TOWARD_B : TOWARD_A;
+            this.relax(goalSlot, this.walkCost(e, offset, g, dir), NONE, e, dir, goal);
+        }
+    }
+
+    // Walks from vertex v into corridor e in direction dir, up to the goal tile inside it
+    private void relaxIntoCorridor(final int v, final int e, final int dir, final int goal, final int goalSlot)
+    {
+        int from = dir == TOWARD_B ? 0 : this.graph.getNumInteriorTiles(e) + 1;
+        float into = this.cost[v] + this.walkCost(e, from, this.graph.getOffsetOfTile(goal), dir);
+        this.relax(goalSlot, into, v, e, dir, goal);
+    }
+
+    private void relax(final int v, final float newCost, final int fromVertex, final int viaEdge,
+                       final int direction, final int goal)
+    {
+        this.generated++;
+        boolean seen = this.stamp[v] == this.generation;
+        if (seen && (this.closed[v] || newCost >= this.cost[v])) return;
+        if (!seen) {
+            this.stamp[v] = this.generation;
+            this.closed[v] = false;
+        }
+        this.cost[v] = newCost;
+        this.parentVertex[v] = fromVertex;
+        this.parentEdge[v] = viaEdge;
+        this.seedDirection[v] = direction;
+        this.open.put(v, newCost + this.heuristic(v, goal));
+    }
+
+    private float heuristic(final int v, final int goal)
+    {
+        if (this.distances == null || v >= this.graph.getNumVertices()) return 0f;
+        int d = this.distances.getDistance(goal, this.graph.getTileOfVertex(v)); // goal's row, see GridSearch
+        return d == MazeDistanceTable.UNREACHABLE ? Float.POSITIVE_INFINITY : d;
+    }
+
+    private float riskOf(final int tile)
+    {
+        return this.risk == null ? 0f : this.risk[tile];
+    }
+
+    private float riskOfEdge(final int e)
+    {
+        if (this.risk == null) return 0f;
+        if (this.edgeRiskStamp[e] != this.generation) {
+            float sum = 0f;
+            for (int i = 1; i <= this.graph.getNumInteriorTiles(e); i++) sum += this.risk[this.graph.getInteriorTile(e, i)];
+            this.edgeRisk[e] = sum;
+            this.edgeRiskStamp[e] = this.generation;
+        }
+        return this.edgeRisk[e];
+    }
+
+    /**
+     * Cost of walking along edge e from position 'from' to position 'to' (0 is endpoint A,
+     * m + 1 is endpoint B, 1..m are interior tiles), paying for every tile entered.
+     */
+    private float walkCost(final int e, final int from, final int to, final int dir)
+    {
+        int m = this.graph.getNumInteriorTiles(e);
+        float total = 0f;
+        for (int pos = from + dir; ; pos += dir) {
+            int tile = this.tileAt(e, pos, m);
+            total += 1f + this.riskOf(tile);
+            if (pos == to) break;
+        }
+        return total;
+    }
+
+    private int tileAt(final int e, final int pos, final int m)
+    {
+        if (pos <= 0) return this.graph.getTileOfVertex(this.graph.getEdgeA(e));
+        if (pos > m) return this.graph.getTileOfVertex(this.graph.getEdgeB(e));
+        return this.graph.getInteriorTile(e, pos);
+    }
+
+    // Turns the vertex-level parent chain back into tiles
+    private void expandPath(final int start, final int goal, final int goalVertex, final int goalEdge, final int goalSlot)
+    {
+        int n = 0;
+        this.pathBuffer[n++] = start;
+
+        int last = goalVertex != NONE ? goalVertex : goalSlot;
+        int chainLength = 0;
+        for (int v = last; v != NONE; v = this.parentVertex[v]) this.vertexChain[chainLength++] = v;
+
+        int startVertex = this.graph.getVertexOfTile(start);
+        int first = this.vertexChain[chainLength - 1];
+
+        if (startVertex == NONE) {
+            // leave the start corridor toward the seeded end (or straight to the goal)
+            int e = this.graph.getEdgeOfTile(start);
+            int m = this.graph.getNumInteriorTiles(e);
+            int dir = this.seedDirection[first];
+            int to = first == goalSlot ? this.graph.getOffsetOfTile(goal) : (dir == TOWARD_A ? 0 : m + 1);
+            for (int pos = this.graph.getOffsetOfTile(start) + dir; ; pos += dir) {
+                this.pathBuffer[n++] = this.tileAt(e, pos, m);
+                if (pos == to) break;
+            }
+        }
+
+        for (int i = chainLength - 2; i >= 0; i--) {
+            int v = this.vertexChain[i];
+            int u = this.vertexChain[i + 1];
+            int e = this.parentEdge[v];
+            int m = this.graph.getNumInteriorTiles(e);
+
+            if (v == goalSlot) {
+                int dir = this.seedDirection[v];
+                int g = this.graph.getOffsetOfTile(goal);
+                for (int pos = dir == TOWARD_B ? 1 : m; ; pos += dir) {
+                    this.pathBuffer[n++] = this.graph.getInteriorTile(e, pos);
+                    if (pos == g) break;
+                }
+            } else {
+                boolean forward = this.graph.getEdgeA(e) == u;
+                for (int j = 1; j <= m; j++) {
+                    this.pathBuffer[n++] = this.graph.getInteriorTile(e, forward ? j : m + 1 - j);
+                }
+                this.pathBuffer[n++] = this.graph.getTileOfVertex(v);
+            }
+        }
+        this.pathLength = n;
+    }
+}
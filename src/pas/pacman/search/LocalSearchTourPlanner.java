@@ -0,0 +1,198 @@
+package src.pas.pacman.search;
+
+
+// SYSTEM IMPORTS
+import java.util.Arrays;
+
+
+// JAVA PROJECT IMPORTS
+import src.pas.pacman.graph.MazeDistanceTable;
+
+
+/**
+ * Approximate pellet tour for boards too large for exact search.
+ *
+ * Builds a nearest-neighbour tour from Pacman's tile, then applies improving 2-opt
+ * (segment reversal) and Or-opt (move a run of 1-3 pellets elsewhere) moves until
+ * neither finds an improvement or the time limit is reached. The tour is open: it starts
+ * on Pacman's tile and ends on whichever pellet is eaten last. Maze distances are
+ * symmetric, so a reversed segment keeps its internal length.
+ */
+public class LocalSearchTourPlanner
+    extends Object
+{
+
+    private static final int MAX_OR_OPT_SEGMENT = 3;
+
+    private final MazeDistanceTable distances;
+
+    private int tourCost = 0;
+    private int improvingMoves = 0;
+
+    // seq[0] is Pacman's tile, seq[1..k] are pellet tiles in eating order; pel[] mirrors seq with pellet ids
+    private int[] seq;
+    private int[] pel;
+    private int k;
+
+    public LocalSearchTourPlanner(final MazeDistanceTable distances)
+    {
+        this.distances = distances;
+    }
+
+    public final int getTourCost() { return this.tourCost; }
+    public final int getImprovingMoves() { return this.improvingMoves; }
+
+    /**
+     * Plans a tour over every pellet reachable from startTile and returns the pellet
+     * indices in eating order. Pellets that cannot be reached are left out.
+     */
+    public int[] plan(final int startTile, final PelletIndex pellets, final long maxMillis)
+    {
+        final long deadline = System.nanoTime() + maxMillis * 1_000_000L;
+        this.improvingMoves = 0;
+
+        this.buildNearestNeighbourTour(startTile, pellets);
+
+        boolean improved = true;
+        while (improved && System.nanoTime() < deadline) {
+            improved = this.twoOptPass(deadline);
+            improved |= this.orOptPass(deadline);
+        }
+
+        this.tourCost = 0;
+        for (int i = 1; i <= this.k; i++) this.tourCost += this.d(this.seq[i - 1], this.seq[i]);
+        return Arrays.copyOfRange(this.pel, 1, this.k + 1);
+    }
+
+    private int d(final int a, final int b) { return this.distances.getDistance(a, b); }
+
+    private void buildNearestNeighbourTour(final int startTile, final PelletIndex pellets)
+    {
+        int n = pellets.getNumPellets();
+        boolean[] used = new boolean[n];
+        this.seq = new int[n + 1];
+        this.pel = new int[n + 1];
+        this.seq[0] = startTile;
+        this.pel[0] = PelletIndex.NO_PELLET;
+        this.k = 0;
+
+        int here = startTile;
+        while (true) {
+            int best = -1;
+            int bestDist = Integer.MAX_VALUE;
+            for (int p = 0; p < n; p++) {
+                if (used[p]) continue;
+                int dist = this.d(here, pellets.getPelletTile(p));
+                if (dist != MazeDistanceTable.UNREACHABLE && dist < bestDist) {
+                    bestDist = dist;
+                    best = p;
+                }
+            }
+            if (best < 0) break;
+
+            used[best] = true;
+            here = pellets.getPelletTile(best);
+            this.k++;
+            this.seq[this.k] = here;
+            this.pel[this.k] = best;
+        }
+    }
+
+    // Reverse seq[i..j]; the edge after j disappears when j is the last stop
+    private boolean twoOptPass(final long deadline)
+    {
+        boolean improved = false;
+        for (int i = 1; i < this.k; i++) {
+            if (System.nanoTime() >= deadline) return improved;
+            for (int j = i + 1; j <= this.k; j++) {
+                int before = this.d(this.seq[i - 1], this.seq[i]);
+                int after = this.d(this.seq[i - 1], this.seq[j]);
+                if (j < this.k) {
+                    before += this.d(this.seq[j], this.seq[j + 1]);
+                    after += this.d(this.seq[i], this.seq[j + 1]);
+                }
+                if (after < before) {
+                    this.reverse(i, j);
+                    this.improvingMoves++;
+                    improved = true;
+                }
+            }
+        }
+        return improved;
+    }
+
+    // Move seq[i..i+len-1] to sit between seq[p] and seq[p+1]
+    private boolean orOptPass(final long deadline)
+    {
+        boolean improved = false;
+        for (int len = 1; len <= MAX_OR_OPT_SEGMENT; len++) {
+            for (int i = 1; i + len - 1 <= this.k; i++) {
+                if (System.nanoTime() >= deadline) return improved;
+
+                int first = this.seq[i];
+                int last = this.seq[i + len - 1];
+                int prev = this.seq[i - 1];
+                boolean hasNext = i + len <= this.k;
+
+                int removeGain = this.d(prev, first);
+                if (hasNext) {
+                    int next = this.seq[i + len];
+                    removeGain += this.d(last, next) - this.d(prev, next);
+                }
+
+                for (int p = 0; p <= this.k; p++) {
+                    if (p >= i - 1 && p <= i + len - 1) continue; // inside or adjacent to the segment
+
+                    int insertCost = this.d(this.seq[p], first);
+                    if (p < this.k) {
+                        insertCost += this.d(last, this.seq[p + 1]) - this.d(this.seq[p], this.seq[p + 1]);
+                    }
+                    if (insertCost < removeGain) {
+                        this.moveSegment(i, len, p);
+                        this.improvingMoves++;
+                        improved = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return improved;
+    }
+
+    private void reverse(int i, int j)
+    {
+        while (i < j) {
+            this.swap(i++, j--);
+        }
+    }
+
+    private void swap(final int a, final int b)
+    {
+        int t = this.seq[a]; this.seq[a] = this.seq[b]; this.seq[b] = t;
+        t = this.pel[a]; this.pel[a] = this.pel[b]; this.pel[b] = t;
+    }
+
+    // Rotations do the move in place: the segment ends up right after the stop that was at p
+    private void moveSegment(final int i, final int len, final int p)
+    {
+        if (p < i) {
+            // rotate seq[p+1 .. i+len-1] right by len
+            this.rotate(p + 1, i + len - 1, len);
+        } else {
+            // rotate seq[i .. p] left by len, i.e. right by (span - len)
+            int span = p - i + 1;
+            this.rotate(i, p, span - len);
+        }
+    }
+
+    // Rotate seq[from..to] right by r using three reversals
+    private void rotate(final int from, final int to, final int r)
+    {
+        int span = to - from + 1;
+        int shift = ((r % span) + span) % span;
+        if (shift == 0) return;
+        this.reverse(from, to);
+        this.reverse(from, from + shift - 1);
+        this.reverse(from + shift, to);
+    }
+}
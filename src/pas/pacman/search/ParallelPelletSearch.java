@@ -0,0 +1,313 @@
+package src.pas.pacman.search;
+
+
+// SYSTEM IMPORTS
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+
+// JAVA PROJECT IMPORTS
+import src.pas.pacman.graph.MazeDistanceTable;
+
+
+/**
+ * Hash-distributed A* (HDA*) over pellet states.
+ *
+ * Every state is owned by one worker, picked by its Zobrist hash. A worker keeps the only
+ * open list and g-table for the states it owns. Successors owned by another worker are sent
+ * to that worker's lock-free inbox, and the receiver computes h with its own heuristic
+ * instance. A tour found by any worker becomes the shared incumbent. Workers keep going until
+ * no queued or in-flight state could beat it, so the result is optimal for an admissible h.
+ *
+ * Termination uses a single counter: each worker adds one while it is busy, and each message
+ * adds one from before it is sent until after its receiver has woken up. When the counter
+ * reads zero, no worker is busy and no message is in flight, and nothing can restart them.
+ *
+ * Interrupting the thread that called solve() aborts every worker; solve() then returns false.
+ */
+public class ParallelPelletSearch
+    extends Object
+{
+
+    // idle workers spin briefly, then yield, then park, so they do not starve busy ones on shared cores
+    private static final int SPINS_BEFORE_YIELD = 64;
+    private static final int SPINS_BEFORE_PARK = 1024;
+    private static final long PARK_NANOS = 20_000L;
+    private static final int INTERRUPT_CHECK_INTERVAL = 256; // loop passes of worker 0 between interrupt checks
+
+    private final MazeDistanceTable distances;
+    private final int numWorkers;
+
+    // per-search shared state
+    private PelletIndex pellets;
+    private List<ConcurrentLinkedQueue<Node>> inboxes;
+    private AtomicLong activity;
+    private volatile boolean aborted;
+    private volatile RuntimeException failure;
+    private volatile float incumbentCost;
+    private Node incumbent;
+    private long[] expandedPerWorker;
+    private long[] sentPerWorker;
+    private long[] generatedPerWorker;
+    private int[] openPeakPerWorker;
+
+    private int[] order = null;
+    private float tourCost = Float.POSITIVE_INFINITY;
+    private long nodesExpanded = 0;
+    private long messagesSent = 0;
+    private long nodesGenerated = 0;
+    private int openPeak = 0;
+
+    public ParallelPelletSearch(final MazeDistanceTable distances,
+                                final int numWorkers)
+    {
+        this.distances = distances;
+        this.numWorkers = Math.max(1, numWorkers);
+    }
+
+    public final int getNumWorkers() { return this.numWorkers; }
+
+    /** Pellet indices in eating order of the tour found by the last solve(). */
+    public final int[] getOrder() { return this.order; }
+    public final float getTourCost() { return this.tourCost; }
+    public final long getNodesExpanded() { return this.nodesExpanded; }
+    public final long getNodesGenerated() { return this.nodesGenerated; }
+
+    /** Largest open list any one worker held during the last solve(). */
+    public final int getOpenPeak() { return this.openPeak; }
+
+    /** States handed to another worker's inbox during the last solve(). */
+    public final long getMessagesSent() { return this.messagesSent; }
+
+    /**
+     * Finds an optimal tour from startTile over every pellet in the index. heuristics is
+     * called once per worker, and each instance is only used by that worker's thread.
+     * Returns false if no tour exists, or if the calling thread is interrupted first.
+     */
+    public boolean solve(final int startTile,
+                         final PelletIndex pellets,
+                         final Supplier<PelletStateHeuristic> heuristics)
+    {
+        this.pellets = pellets;
+        this.inboxes = new ArrayList<>(this.numWorkers);
+        for (int w = 0; w < this.numWorkers; w++) this.inboxes.add(new ConcurrentLinkedQueue<>());
+        this.activity = new AtomicLong(this.numWorkers); // every worker starts busy
+        this.aborted = false;
+        this.failure = null;
+        this.incumbentCost = Float.POSITIVE_INFINITY;
+        this.incumbent = null;
+        this.expandedPerWorker = new long[this.numWorkers];
+        this.sentPerWorker = new long[this.numWorkers];
+        this.generatedPerWorker = new long[this.numWorkers];
+        this.openPeakPerWorker = new int[this.numWorkers];
+
+        PelletStateKey root = pellets.fullKey(startTile);
+        this.send(new Node(root, PelletIndex.NO_PELLET, null, 0f), this.ownerOf(root));
+
+        Thread[] threads = new Thread[this.numWorkers - 1];
+        for (int w = 1; w < this.numWorkers; w++) {
+            final int id = w;
+            final PelletStateHeuristic h = heuristics.get();
+            threads[w - 1] = new Thread(() -> this.runWorker(id, h), "pellet-hda-" + w);
+            threads[w - 1].setDaemon(true);
+            threads[w - 1].start();
+        }
+        this.runWorker(0, heuristics.get()); // the calling thread is worker 0
+
+        boolean interrupted = false;
+        for (Thread t : threads) {
+            while (true) {
+                try {
+                    t.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+
+        this.nodesExpanded = 0;
+        this.messagesSent = 0;
+        this.nodesGenerated = 0;
+        this.openPeak = 0;
+        for (int w = 0; w < this.numWorkers; w++) {
+            this.nodesExpanded += this.expandedPerWorker[w];
+            this.messagesSent += this.sentPerWorker[w];
+            this.nodesGenerated += this.generatedPerWorker[w];
+            this.openPeak = Math.max(this.openPeak, this.openPeakPerWorker[w]);
+        }
+        this.inboxes = null;
+        if (this.failure != null) throw this.failure; // a worker crashed: surface it on the caller
+
+        if (this.aborted || this.incumbent == null) {
+            this.order = null;
+            this.tourCost = Float.POSITIVE_INFINITY;
+            return false;
+        }
+        this.recordOrder(this.incumbent);
+        return true;
+    }
+
+    private void runWorker(final int id, final PelletStateHeuristic heuristic)
+    {
+        PriorityQueue<Node> open = new PriorityQueue<>();
+        Map<PelletStateKey, Node> best = new HashMap<>();
+        ConcurrentLinkedQueue<Node> inbox = this.inboxes.get(id);
+        boolean busy = true;
+        int idleSpins = 0;
+        int passes = 0;
+
+        try {
+            while (!this.aborted) {
+                // worker 0 runs on the caller's thread, which is interrupted when the plan is cancelled
+                if (id == 0 && ++passes % INTERRUPT_CHECK_INTERVAL == 0 && Thread.currentThread().isInterrupted()) {
+                    this.aborted = true;
+                    break;
+                }
+
+                Node message;
+                while ((message = inbox.poll()) != null) {
+                    if (!busy) {
+                        busy = true;
+                        this.activity.incrementAndGet(); // count ourselves before releasing the message
+                    }
+                    this.receive(id, message, open, best, heuristic);
+                    this.activity.decrementAndGet();
+                }
+
+                Node current = this.pollUseful(open, best);
+                if (current != null) {
+                    idleSpins = 0;
+                    this.expand(id, current, open, best, heuristic);
+                    continue;
+                }
+
+                if (busy) {
+                    busy = false;
+                    open.clear(); // nothing left here can beat the incumbent
+                    this.activity.decrementAndGet();
+                }
+                if (this.activity.get() == 0) return;
+                if (++idleSpins < SPINS_BEFORE_YIELD) Thread.onSpinWait();
+                else if (idleSpins < SPINS_BEFORE_PARK) Thread.yield();
+                else LockSupport.parkNanos(PARK_NANOS);
+            }
+        } catch (RuntimeException e) {
+            this.failure = e;
+            this.aborted = true; // stops the other workers
+        }
+    }
+
+    private void receive(final int id, final Node node, final PriorityQueue<Node> open,
+                         final Map<PelletStateKey, Node> best, final PelletStateHeuristic heuristic)
+    {
+        Node recorded = best.get(node.key);
+        if (recorded != null && recorded.g <= node.g) return;
+        node.h = recorded != null ? recorded.h : heuristic.estimate(node.key);
+        if (node.g + node.h >= this.incumbentCost) return;
+        best.put(node.key, node);
+        open.add(node);
+        if (open.size() > this.openPeakPerWorker[id]) this.openPeakPerWorker[id] = open.size();
+    }
+
+    // Pops the next node that is neither superseded by a cheaper copy nor beaten by the incumbent
+    private Node pollUseful(final PriorityQueue<Node> open, final Map<PelletStateKey, Node> best)
+    {
+        Node node;
+        while ((node = open.poll()) != null) {
+            if (best.get(node.key) != node) continue;
+            if (node.g + node.h >= this.incumbentCost) return null; // open is ordered by f
+            return node;
+        }
+        return null;
+    }
+
+    private void expand(final int id, final Node node, final PriorityQueue<Node> open,
+                        final Map<PelletStateKey, Node> best, final PelletStateHeuristic heuristic)
+    {
+        if (node.key.isEmpty()) {
+            this.offerTour(node);
+            return;
+        }
+        this.expandedPerWorker[id]++;
+
+        int from = node.key.getPacmanTile();
+        for (int p = node.key.nextPellet(0); p >= 0; p = node.key.nextPellet(p + 1)) {
+            int dist = this.distances.getDistance(from, this.pellets.getPelletTile(p));
+            if (dist == MazeDistanceTable.UNREACHABLE) continue;
+
+            PelletStateKey nextKey = node.key.eat(p, this.pellets);
+            this.generatedPerWorker[id]++;
+            Node next = new Node(nextKey, p, node, node.g + dist);
+            int owner = this.ownerOf(nextKey);
+            if (owner == id) {
+                this.receive(id, next, open, best, heuristic);
+            } else {
+                this.sentPerWorker[id]++;
+                this.send(next, owner);
+            }
+        }
+    }
+
+    private void send(final Node node, final int owner)
+    {
+        this.activity.incrementAndGet(); // before the message becomes visible
+        this.inboxes.get(owner).add(node);
+    }
+
+    private synchronized void offerTour(final Node goal)
+    {
+        if (goal.g < this.incumbentCost) {
+            this.incumbent = goal;
+            this.incumbentCost = goal.g;
+        }
+    }
+
+    private int ownerOf(final PelletStateKey key)
+    {
+        long h = key.getHash();
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) ((h & Long.MAX_VALUE) % this.numWorkers);
+    }
+
+    private void recordOrder(final Node goal)
+    {
+        int n = 0;
+        for (Node t = goal; t.parent != null; t = t.parent) n++;
+        this.order = new int[n];
+        for (Node t = goal; t.parent != null; t = t.parent) this.order[--n] = t.pellet;
+        this.tourCost = goal.g;
+    }
+
+    // A queued pellet state; immutable once sent except for h, which only its owner writes
+    private static final class Node implements Comparable<Node> {
+        final PelletStateKey key;
+        final int pellet;   // pellet eaten to reach this state (NO_PELLET at the root)
+        final Node parent;
+        final float g;
+        float h;
+
+        Node(PelletStateKey key, int pellet, Node parent, float g) {
+            this.key = key;
+            this.pellet = pellet;
+            this.parent = parent;
+            this.g = g;
+        }
+
+        @Override
+        public int compareTo(Node other) {
+            int c = Float.compare(this.g + this.h, other.g + other.h);
+            return c != 0 ? c : Float.compare(other.g, this.g); // deeper first on ties
+        }
+    }
+}
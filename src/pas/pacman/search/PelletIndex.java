@@ -0,0 +1,100 @@
+package src.pas.pacman.search;
+
+
+// SYSTEM IMPORTS
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Random;
+
+
+// JAVA PROJECT IMPORTS
+import edu.bu.pas.pacman.graph.PelletGraph.PelletVertex;
+import edu.bu.pas.pacman.utils.Coordinate;
+
+import src.pas.pacman.graph.MazeGraph;
+
+
+/**
+ * Numbers the pellets of one search so pellet sets can be stored as bitmasks.
+ *
+ * Also owns the random 64-bit codes used to hash a PelletStateKey incrementally:
+ * a state's hash is the XOR of the codes of its remaining pellets and its Pacman tile.
+ */
+public class PelletIndex
+    extends Object
+{
+
+    public static final int NO_PELLET = -1;
+
+    private final MazeGraph graph;
+    private final int[] pelletTiles;        // pellet index -> tile id
+    private final int[] pelletIndexByTile;  // tile id -> pellet index (or NO_PELLET)
+    private final long[] pelletCodes;
+    private final long[] pacmanCodes;
+
+    public PelletIndex(final MazeGraph graph,
+                       final Collection<Coordinate> pellets)
+    {
+        this.graph = graph;
+        this.pelletIndexByTile = new int[graph.getNumTiles()];
+        Arrays.fill(this.pelletIndexByTile, NO_PELLET);
+
+        // sort by tile id so the numbering doesn't depend on set iteration order
+        int[] tiles = new int[pellets.size()];
+        int n = 0;
+        for (Coordinate c : pellets) {
+            int tile = graph.getTileId(c);
+            if (tile != MazeGraph.NO_TILE) tiles[n++] = tile;
+        }
+        this.pelletTiles = Arrays.copyOf(tiles, n);
+        Arrays.sort(this.pelletTiles);
+        for (int i = 0; i < n; i++) {
+            this.pelletIndexByTile[this.pelletTiles[i]] = i;
+        }
+
+        Random rng = new Random(0x5EED_BEEFL);
+        this.pelletCodes = new long[n];
+        for (int i = 0; i < n; i++) this.pelletCodes[i] = rng.nextLong();
+        this.pacmanCodes = new long[graph.getNumTiles()];
+        for (int i = 0; i < this.pacmanCodes.length; i++) this.pacmanCodes[i] = rng.nextLong();
+    }
+
+    public final MazeGraph getGraph() { return this.graph; }
+    public final int getNumPellets() { return this.pelletTiles.length; }
+    public final int getPelletTile(final int pellet) { return this.pelletTiles[pellet]; }
+    public final Coordinate getPelletCoordinate(final int pellet) { return this.graph.getCoordinate(this.pelletTiles[pellet]); }
+    public final int getPelletIndex(final int tile) { return this.pelletIndexByTile[tile]; }
+
+    final long getPelletCode(final int pellet) { return this.pelletCodes[pellet]; }
+    final long getPacmanCode(final int tile) { return this.pacmanCodes[tile]; }
+
+    /** Key of the state where Pacman stands on pacmanTile and every indexed pellet is left. */
+    public PelletStateKey fullKey(final int pacmanTile)
+    {
+        long[] bits = new long[(this.getNumPellets() + 63) >>> 6];
+        long hash = this.pacmanCodes[pacmanTile];
+        for (int i = 0; i < this.getNumPellets(); i++) {
+            bits[i >>> 6] |= 1L << i;
+            hash ^= this.pelletCodes[i];
+        }
+        return new PelletStateKey(bits, pacmanTile, hash, this.getNumPellets());
+    }
+
+    /** Key of an arbitrary vertex; pellets that were not indexed are ignored. */
+    public PelletStateKey keyOf(final PelletVertex vertex)
+    {
+        int pacmanTile = this.graph.getTileId(vertex.getPacmanCoordinate());
+        long[] bits = new long[(this.getNumPellets() + 63) >>> 6];
+        long hash = this.pacmanCodes[pacmanTile];
+        int count = 0;
+        for (Coordinate c : vertex.getRemainingPelletCoordinates()) {
+            int tile = this.graph.getTileId(c);
+            int i = tile == MazeGraph.NO_TILE ? NO_PELLET : this.pelletIndexByTile[tile];
+            if (i == NO_PELLET) continue;
+            bits[i >>> 6] |= 1L << i;
+            hash ^= this.pelletCodes[i];
+            count++;
+        }
+        return new PelletStateKey(bits, pacmanTile, hash, count);
+    }
+}
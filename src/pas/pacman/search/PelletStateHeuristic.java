@@ -0,0 +1,18 @@
+package src.pas.pacman.search;
+
+
+// SYSTEM IMPORTS
+
+
+// JAVA PROJECT IMPORTS
+
+
+/**
+ * Estimate of the cost of eating every pellet left in a state, for the pellet searches that
+ * live outside PacmanAgent (ParallelPelletSearch, BoundedPelletSearch).
+ */
+public interface PelletStateHeuristic
+{
+
+    public float estimate(final PelletStateKey key);
+}
@@ -0,0 +1,103 @@
+package src.pas.pacman.search;
+
+
+// SYSTEM IMPORTS
+import java.util.Arrays;
+
+
+// JAVA PROJECT IMPORTS
+import src.pas.pacman.graph.MazeGraph;
+
+
+/**
+ * Compact identity of a pellet-search state: a bitmask of the remaining pellets
+ * (indexed by a PelletIndex) plus the tile Pacman stands on.
+ *
+ * The 64-bit hash is maintained incrementally by eat(), so building a successor's key
+ * costs one array copy and never sorts or formats anything.
+ */
+public final class PelletStateKey
+    extends Object
+{
+
+    private final long[] pellets;
+    private final int pacmanTile;
+    private final long hash;
+    private final int numRemaining;
+
+    PelletStateKey(final long[] pellets,
+                   final int pacmanTile,
+                   final long hash,
+                   final int numRemaining)
+    {
+        this.pellets = pellets;
+        this.pacmanTile = pacmanTile;
+        this.hash = hash;
+        this.numRemaining = numRemaining;
+    }
+
+    public final int getPacmanTile() { return this.pacmanTile; }
+    public final long getHash() { return this.hash; }
+    public final int getNumRemaining() { return this.numRemaining; }
+    public final boolean isEmpty() { return this.numRemaining == 0; }
+
+    public final boolean contains(final int pellet)
+    {
+        return (this.pellets[pellet >>> 6] & (1L << pellet)) != 0;
+    }
+
+    /** Next remaining pellet index >= from, or -1 when there are none. */
+    public final int nextPellet(final int from)
+    {
+        int word = from >>> 6;
+        if (word >= this.pellets.length) return -1;
+        long bits = this.pellets[word] & (-1L << from);
+        while (true) {
+            if (bits != 0) return (word << 6) + Long.numberOfTrailingZeros(bits);
+            if (++word == this.pellets.length) return -1;
+            bits = this.pellets[word];
+        }
+    }
+
+    /** Successor where Pacman walks to the given (remaining) pellet and eats it. */
+    public PelletStateKey eat(final int pellet, final PelletIndex index)
+    {
+        long[] next = this.pellets.clone();
+        next[pellet >>> 6] &= ~(1L << pellet);
+
+        int tile = index.getPelletTile(pellet);
+        long nextHash = this.hash
+            ^ index.getPelletCode(pellet)
+            ^ index.getPacmanCode(this.pacmanTile)
+            ^ index.getPacmanCode(tile);
+        return new PelletStateKey(next, tile, nextHash, this.numRemaining - 1);
+    }
+
+    /**
+     * Key identifying only the remaining pellet set (Pacman's tile is dropped from both the
+     * hash and equality). Shares the bitmask, which is never mutated after construction.
+     */
+    public PelletStateKey pelletSubset(final PelletIndex index)
+    {
+        if (this.pacmanTile == MazeGraph.NO_TILE) return this;
+        return new PelletStateKey(this.pellets, MazeGraph.NO_TILE,
+                                  this.hash ^ index.getPacmanCode(this.pacmanTile), this.numRemaining);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return (int) (this.hash ^ (this.hash >>> 32));
+    }
+
+    @Override
+    public boolean equals(final Object other)
+    {
+        if (this == other) return true;
+        if (!(other instanceof PelletStateKey)) return false;
+        PelletStateKey o = (PelletStateKey) other;
+        return this.hash == o.hash
+            && this.pacmanTile == o.pacmanTile
+            && Arrays.equals(this.pellets, o.pellets);
+    }
+}
@@ -0,0 +1,146 @@
+package src.pas.pacman.search;
+
+
+// SYSTEM IMPORTS
+import java.util.Arrays;
+
+
+// JAVA PROJECT IMPORTS
+import src.pas.pacman.graph.MazeDistanceTable;
+import src.pas.pacman.graph.MazeGraph;
+
+
+/**
+ * Real-time adaptive A* (RTAA*): picks one move at a time with a bounded lookahead and learns
+ * a per-tile heuristic toward the current goal.
+ *
+ * Each step runs A* from Pacman's tile for at most lookahead expansions, raises h of every
+ * expanded tile to f(best frontier tile) - g(tile), and returns the first move toward that
+ * frontier tile. Work per step is bounded by the lookahead, not by the board. Successors are
+ * the legal Pacman moves recorded in MazeGraph (the same ones getOutgoingNeighbors returns),
+ * and entering a tile costs 1 plus its risk. Learned values are kept until the goal changes.
+ */
+public class RealTimeSearch
+    extends Object
+{
+
+    private final MazeGraph graph;
+    private final MazeDistanceTable distances;
+    private final int lookahead;
+
+    // learned heuristic toward goal; a tile whose hStamp is stale still has its table distance
+    private final float[] h;
+    private final int[] hStamp;
+    private int goalEpoch = 0;
+    private int goal = MazeGraph.NO_TILE;
+
+    // per-step lookahead state
+    private final float[] g;
+    private final int[] parent;
+    private final int[] stamp;
+    private final int[] closed;
+    private final IndexedMinHeap open;
+    private int generation = 0;
+
+    private int expanded = 0;
+    private int generated = 0;
+
+    public RealTimeSearch(final MazeGraph graph,
+                          final MazeDistanceTable distances,
+                          final int lookahead)
+    {
+        this.graph = graph;
+        this.distances = distances;
+        this.lookahead = Math.max(1, lookahead);
+        int n = graph.getNumTiles();
+        this.h = new float[n];
+        this.hStamp = new int[n];
+        this.g = new float[n];
+        this.parent = new int[n];
+        this.stamp = new int[n];
+        this.closed = new int[this.lookahead];
+        this.open = new IndexedMinHeap(n);
+    }
+
+    public final int getLookahead() { return this.lookahead; }
+    public final int getNodesExpanded() { return this.expanded; }
+    public final int getNodesGenerated() { return this.generated; }
+    public final int getOpenPeak() { return this.open.getPeakSize(); }
+
+    /** Learned estimate of the cost from tile to the current goal. */
+    public final float getHeuristic(final int tile)
+    {
+        if (this.hStamp[tile] == this.goalEpoch) return this.h[tile];
+        int d = this.distances.getDistance(this.goal, tile); // goal's row, see GridSearch
+        return d == MazeDistanceTable.UNREACHABLE ? Float.POSITIVE_INFINITY : d;
+    }
+
+    /**
+     * Next tile to step onto from start on the way to goal, or NO_TILE if start is the goal
+     * or the lookahead finds no way out.
+     */
+    public int step(final int start, final int goal, final float[] risk)
+    {
+        this.expanded = 0;
+        this.generated = 0;
+        if (start == MazeGraph.NO_TILE || goal == MazeGraph.NO_TILE || start == goal) return MazeGraph.NO_TILE;
+        if (goal != this.goal) {
+            this.goal = goal;
+            if (++this.goalEpoch == 0) { // forget everything learned for the previous goal
+                Arrays.fill(this.hStamp, 0);
+                this.goalEpoch = 1;
+            }
+        }
+        if (++this.generation == 0) {
+            Arrays.fill(this.stamp, 0);
+            this.generation = 1;
+        }
+        this.open.clear();
+
+        this.stamp[start] = this.generation;
+        this.g[start] = 0f;
+        this.parent[start] = MazeGraph.NO_TILE;
+        this.open.put(start, this.getHeuristic(start));
+
+        int numClosed = 0;
+        int best = MazeGraph.NO_TILE;
+        while (!this.open.isEmpty()) {
+            int here = this.open.peek();
+            if (here == goal || numClosed == this.lookahead) {
+                best = here;
+                break;
+            }
+            this.open.poll();
+            this.closed[numClosed++] = here;
+            this.expanded++;
+
+            int mask = this.graph.getMoveMask(here);
+            while (mask != 0) {
+                int d = Integer.numberOfTrailingZeros(mask);
+                mask &= mask - 1;
+                int next = this.graph.getNeighbor(here, d);
+                this.generated++;
+                float newG = this.g[here] + 1f + (risk == null ? 0f : risk[next]);
+                boolean seen = this.stamp[next] == this.generation;
+                if (seen && (newG >= this.g[next] || !this.open.contains(next))) continue; // closed tiles stay closed
+                this.stamp[next] = this.generation;
+                this.g[next] = newG;
+                this.parent[next] = here;
+                this.open.put(next, newG + this.getHeuristic(next));
+            }
+        }
+        if (best == MazeGraph.NO_TILE) return MazeGraph.NO_TILE; // goal unreachable from here
+
+        // RTAA* update: every expanded tile learns h = f(best) - g
+        float fBest = this.g[best] + this.getHeuristic(best);
+        for (int i = 0; i < numClosed; i++) {
+            int s = this.closed[i];
+            this.h[s] = Math.max(this.getHeuristic(s), fBest - this.g[s]);
+            this.hStamp[s] = this.goalEpoch;
+        }
+
+        int next = best;
+        while (this.parent[next] != start) next = this.parent[next];
+        return next;
+    }
+}
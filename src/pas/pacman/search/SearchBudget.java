@@ -0,0 +1,82 @@
+package src.pas.pacman.search;
+
+
+// SYSTEM IMPORTS
+
+
+// JAVA PROJECT IMPORTS
+
+
+/**
+ * Node-count and wall-clock limits shared by the iterations of a bounded search.
+ *
+ * The clock is only read every CLOCK_CHECK_INTERVAL expansions so that charging a node
+ * stays a counter increment. At the same interval the budget also runs out if the searching
+ * thread has been interrupted, so even an unlimited search stops when its plan is cancelled.
+ */
+public class SearchBudget
+    extends Object
+{
+
+    public static final long UNLIMITED = Long.MAX_VALUE;
+    private static final int CLOCK_CHECK_INTERVAL = 256;
+
+    private final long maxNodes;
+    private final long deadlineNanos;
+    private long nodesExpanded = 0;
+    private boolean exhausted = false;
+    private boolean cancelled = false;
+
+    public SearchBudget(final long maxNodes,
+                        final long maxMillis)
+    {
+        this.maxNodes = maxNodes;
+        this.deadlineNanos = maxMillis == UNLIMITED
+            ? UNLIMITED
+            : System.nanoTime() + maxMillis * 1_000_000L;
+    }
+
+    public static SearchBudget unlimited() { return new SearchBudget(UNLIMITED, UNLIMITED); }
+
+    public final long getNodesExpanded() { return this.nodesExpanded; }
+
+    /** True if the budget ran out because the searching thread was interrupted. */
+    public final boolean isCancelled() { return this.cancelled; }
+
+    /**
+     * Charges one expansion; returns false (without charging it) once either limit has been
+     * hit, so exactly maxNodes expansions are allowed.
+     */
+    public boolean expand()
+    {
+        if (this.exhausted) return false;
+        if (this.nodesExpanded >= this.maxNodes) {
+            this.exhausted = true;
+        } else if (this.nodesExpanded > 0 && (this.nodesExpanded % CLOCK_CHECK_INTERVAL) == 0) {
+            this.checkLimits();
+        }
+        if (this.exhausted) return false;
+        this.nodesExpanded++;
+        return true;
+    }
+
+    /** True once no further expansion will be allowed. */
+    public boolean isExhausted()
+    {
+        if (!this.exhausted) {
+            if (this.nodesExpanded >= this.maxNodes) this.exhausted = true;
+            else this.checkLimits();
+        }
+        return this.exhausted;
+    }
+
+    private void checkLimits()
+    {
+        if (Thread.currentThread().isInterrupted()) {
+            this.cancelled = true;
+            this.exhausted = true;
+        } else if (this.deadlineNanos != UNLIMITED && System.nanoTime() >= this.deadlineNanos) {
+            this.exhausted = true;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package src.pas.pacman.search;
+
+
+// SYSTEM IMPORTS
+
+
+// JAVA PROJECT IMPORTS
+
+
+/**
+ * Point-to-point tile path query used by PacmanAgent.makePlan and graphSearch.
+ *
+ * Entering a tile costs 1 plus its entry in the risk array (null means no risk). After a
+ * successful search() the path is read back tile by tile, start tile first.
+ */
+public interface TilePathSearch
+{
+
+    public boolean search(final int start, final int goal, final float[] risk);
+
+    /** Number of tiles on the last path found, including start and goal (0 if none). */
+    public int getPathLength();
+
+    /** i-th tile of the last path, counting from the start tile. */
+    public int getPathTile(final int i);
+
+    public float getPathCost();
+
+    public int getNodesExpanded();
+
+    /** Successors looked at by the last search, including ones it did not queue. */
+    public int getNodesGenerated();
+
+    /** Largest size the open list reached during the last search. */
+    public int getOpenPeak();
+
+    /** Tells an incremental search that the risk of entering tile has changed; no-op by default. */
+    public default void riskChanged(final int tile) { }
+}
@@ -0,0 +1,116 @@
+package src.pas.pacman.telemetry;
+
+
+// SYSTEM IMPORTS
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+
+// JAVA PROJECT IMPORTS
+
+
+/**
+ * Appends PlanningTelemetry records to a CSV file: one "move" row per decision and one "game"
+ * row per finished game, with the same columns. The header is written when the file is new.
+ * Rows are buffered and flushed at the end of every game.
+ *
+ * The sink never throws once it is open. The first write or flush that fails is kept (see
+ * getFailure), reported once on stderr, and every later record is dropped.
+ *
+ * Not shared between agents: give each agent (or each thread of a batch run) its own file.
+ */
+public class CsvTelemetrySink
+    extends Object
+    implements Closeable
+{
+
+    public static final String HEADER = "kind,game,turn,decisions,nodes_expanded,nodes_generated,open_peak,"
+        + "distance_cache_hits,distance_cache_misses,heuristic_cache_hits,heuristic_cache_misses,"
+        + "find_path_us,graph_search_us,ghost_update_us,decision_us,replans,pellets_remaining";
+
+    private final Path file;
+    private final BufferedWriter out;
+    private IOException failure = null; // first write error; the sink is disabled once set
+
+    public CsvTelemetrySink(final Path file) throws IOException
+    {
+        this.file = file;
+        boolean isNew = !Files.exists(file) || Files.size(file) == 0;
+        this.out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                                           StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if (isNew) {
+            this.out.write(HEADER);
+            this.out.newLine();
+        }
+    }
+
+    public final Path getFile() { return this.file; }
+
+    /** The error that disabled this sink, or null while it is still writing. */
+    public final IOException getFailure() { return this.failure; }
+
+    public void writeDecision(final int game, final int turn, final DecisionStats stats)
+    {
+        this.write("move", game, turn, stats, -1);
+    }
+
+    public void writeGame(final int game, final int turns, final int pelletsRemaining, final DecisionStats stats)
+    {
+        this.write("game", game, turns, stats, pelletsRemaining);
+    }
+
+    public void flush()
+    {
+        if (this.failure != null) return;
+        try {
+            this.out.flush();
+        } catch (IOException e) {
+            this.fail(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        this.out.close();
+    }
+
+    private void fail(final IOException e)
+    {
+        this.failure = e;
+        System.err.println("telemetry: writing " + this.file + " failed, CSV logging disabled: " + e);
+    }
+
+    // pelletsRemaining < 0 leaves the column empty (only known at the end of a game)
+    private void write(final String kind, final int game, final int turn, final DecisionStats s, final int pelletsRemaining)
+    {
+        if (this.failure != null) return;
+        StringBuilder row = new StringBuilder(160);
+        row.append(kind).append(',').append(game).append(',').append(turn).append(',')
+           .append(s.getDecisions()).append(',')
+           .append(s.getNodesExpanded()).append(',')
+           .append(s.getNodesGenerated()).append(',')
+           .append(s.getOpenPeak()).append(',')
+           .append(s.getDistanceCacheHits()).append(',')
+           .append(s.getDistanceCacheMisses()).append(',')
+           .append(s.getHeuristicCacheHits()).append(',')
+           .append(s.getHeuristicCacheMisses()).append(',')
+           .append(s.getFindPathNanos() / 1_000L).append(',')
+           .append(s.getGraphSearchNanos() / 1_000L).append(',')
+           .append(s.getGhostUpdateNanos() / 1_000L).append(',')
+           .append(s.getDecisionNanos() / 1_000L).append(',')
+           .append(s.getReplans()).append(',');
+        if (pelletsRemaining >= 0) row.append(pelletsRemaining);
+        try {
+            this.out.write(row.toString());
+            this.out.newLine();
+        } catch (IOException e) {
+            this.fail(e);
+        }
+    }
+}
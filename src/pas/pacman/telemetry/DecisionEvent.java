@@ -0,0 +1,88 @@
+package src.pas.pacman.telemetry;
+
+
+// SYSTEM IMPORTS
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+
+// JAVA PROJECT IMPORTS
+
+
+/**
+ * JFR event for one PacmanAgent.makeMove call. Its duration is the whole call; the fields
+ * are the DecisionStats counted during it.
+ */
+@Name("src.pas.pacman.Decision")
+@Label("Pacman Decision")
+@Category({"Pacman", "Planning"})
+@Description("Planning work done by PacmanAgent for one move")
+@StackTrace(false)
+public class DecisionEvent
+    extends Event
+{
+
+    @Label("Game")
+    public int game;
+
+    @Label("Turn")
+    public int turn;
+
+    @Label("Nodes Expanded")
+    public long nodesExpanded;
+
+    @Label("Nodes Generated")
+    public long nodesGenerated;
+
+    @Label("Open List Peak")
+    public int openPeak;
+
+    @Label("Distance Cache Hits")
+    public long distanceCacheHits;
+
+    @Label("Distance Cache Misses")
+    public long distanceCacheMisses;
+
+    @Label("Heuristic Cache Hits")
+    public long heuristicCacheHits;
+
+    @Label("Heuristic Cache Misses")
+    public long heuristicCacheMisses;
+
+    @Label("Pellet Planning Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long findPathTime;
+
+    @Label("Tile Search Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long graphSearchTime;
+
+    @Label("Ghost Field Update Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long ghostUpdateTime;
+
+    @Label("Replans")
+    public int replans;
+
+    void fill(final int game, final int turn, final DecisionStats stats)
+    {
+        this.game = game;
+        this.turn = turn;
+        this.nodesExpanded = stats.getNodesExpanded();
+        this.nodesGenerated = stats.getNodesGenerated();
+        this.openPeak = stats.getOpenPeak();
+        this.distanceCacheHits = stats.getDistanceCacheHits();
+        this.distanceCacheMisses = stats.getDistanceCacheMisses();
+        this.heuristicCacheHits = stats.getHeuristicCacheHits();
+        this.heuristicCacheMisses = stats.getHeuristicCacheMisses();
+        this.findPathTime = stats.getFindPathNanos();
+        this.graphSearchTime = stats.getGraphSearchNanos();
+        this.ghostUpdateTime = stats.getGhostUpdateNanos();
+        this.replans = stats.getReplans();
+    }
+}
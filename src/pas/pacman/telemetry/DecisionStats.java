@@ -0,0 +1,119 @@
+package src.pas.pacman.telemetry;
+
+
+// SYSTEM IMPORTS
+
+
+// JAVA PROJECT IMPORTS
+
+
+/**
+ * Planning work counted over one makeMove call, or summed over a whole game.
+ *
+ * Node counts and the open-list peak cover every search run in that span: tile path queries,
+ * the real-time lookahead, and the pellet planner. Cache counts are the distance table cache
+ * (one lookup per new board) and the MST heuristic memo. Times are in nanoseconds.
+ */
+public class DecisionStats
+    extends Object
+{
+
+    private int decisions = 0;
+    private long nodesExpanded = 0;
+    private long nodesGenerated = 0;
+    private int openPeak = 0;
+    private long distanceCacheHits = 0;
+    private long distanceCacheMisses = 0;
+    private long heuristicCacheHits = 0;
+    private long heuristicCacheMisses = 0;
+    private long findPathNanos = 0;
+    private long graphSearchNanos = 0;
+    private long ghostUpdateNanos = 0;
+    private long decisionNanos = 0;
+    private int replans = 0;
+
+    public final int getDecisions() { return this.decisions; }
+    public final long getNodesExpanded() { return this.nodesExpanded; }
+    public final long getNodesGenerated() { return this.nodesGenerated; }
+
+    /** Largest open list of any single search (peaks are not summed). */
+    public final int getOpenPeak() { return this.openPeak; }
+
+    public final long getDistanceCacheHits() { return this.distanceCacheHits; }
+    public final long getDistanceCacheMisses() { return this.distanceCacheMisses; }
+    public final long getHeuristicCacheHits() { return this.heuristicCacheHits; }
+    public final long getHeuristicCacheMisses() { return this.heuristicCacheMisses; }
+    public final long getFindPathNanos() { return this.findPathNanos; }
+
+    /** Time in tile path queries, from graphSearch and from makePlan. */
+    public final long getGraphSearchNanos() { return this.graphSearchNanos; }
+
+    public final long getGhostUpdateNanos() { return this.ghostUpdateNanos; }
+
+    /** Wall-clock time of the makeMove calls themselves. */
+    public final long getDecisionNanos() { return this.decisionNanos; }
+
+    /** Plans abandoned by handlePlanFailure. */
+    public final int getReplans() { return this.replans; }
+
+    void addSearch(final long expanded, final long generated, final int peak)
+    {
+        this.nodesExpanded += expanded;
+        this.nodesGenerated += generated;
+        this.openPeak = Math.max(this.openPeak, peak);
+    }
+
+    void addDistanceCache(final long hits, final long misses)
+    {
+        this.distanceCacheHits += hits;
+        this.distanceCacheMisses += misses;
+    }
+
+    void addHeuristicCache(final long hits, final long misses)
+    {
+        this.heuristicCacheHits += hits;
+        this.heuristicCacheMisses += misses;
+    }
+
+    void addFindPath(final long nanos) { this.findPathNanos += nanos; }
+    void addGraphSearch(final long nanos) { this.graphSearchNanos += nanos; }
+    void addGhostUpdate(final long nanos) { this.ghostUpdateNanos += nanos; }
+    void addReplan() { this.replans++; }
+
+    void addDecision(final long nanos)
+    {
+        this.decisions++;
+        this.decisionNanos += nanos;
+    }
+
+    /** Adds other's counts into this one; the open-list peak takes the larger of the two. */
+    void add(final DecisionStats other)
+    {
+        this.decisions += other.decisions;
+        this.addSearch(other.nodesExpanded, other.nodesGenerated, other.openPeak);
+        this.addDistanceCache(other.distanceCacheHits, other.distanceCacheMisses);
+        this.addHeuristicCache(other.heuristicCacheHits, other.heuristicCacheMisses);
+        this.findPathNanos += other.findPathNanos;
+        this.graphSearchNanos += other.graphSearchNanos;
+        this.ghostUpdateNanos += other.ghostUpdateNanos;
+        this.decisionNanos += other.decisionNanos;
+        this.replans += other.replans;
+    }
+
+    void clear()
+    {
+        this.decisions = 0;
+        this.nodesExpanded = 0;
+        this.nodesGenerated = 0;
+        this.openPeak = 0;
+        this.distanceCacheHits = 0;
+        this.distanceCacheMisses = 0;
+        this.heuristicCacheHits = 0;
+        this.heuristicCacheMisses = 0;
+        this.findPathNanos = 0;
+        this.graphSearchNanos = 0;
+        this.ghostUpdateNanos = 0;
+        this.decisionNanos = 0;
+        this.replans = 0;
+    }
+}
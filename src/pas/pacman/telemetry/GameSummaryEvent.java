@@ -0,0 +1,98 @@
+package src.pas.pacman.telemetry;
+
+
+// SYSTEM IMPORTS
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+
+// JAVA PROJECT IMPORTS
+
+
+/** JFR event emitted by PacmanAgent.afterGameEnds with the DecisionStats of the whole game. */
+@Name("src.pas.pacman.GameSummary")
+@Label("Pacman Game Summary")
+@Category({"Pacman", "Planning"})
+@Description("Planning work done by PacmanAgent over one game")
+@StackTrace(false)
+public class GameSummaryEvent
+    extends Event
+{
+
+    @Label("Game")
+    public int game;
+
+    @Label("Turns")
+    public int turns;
+
+    @Label("Pellets Remaining")
+    public int pelletsRemaining;
+
+    @Label("Decisions")
+    public int decisions;
+
+    @Label("Nodes Expanded")
+    public long nodesExpanded;
+
+    @Label("Nodes Generated")
+    public long nodesGenerated;
+
+    @Label("Largest Open List")
+    public int openPeak;
+
+    @Label("Distance Cache Hits")
+    public long distanceCacheHits;
+
+    @Label("Distance Cache Misses")
+    public long distanceCacheMisses;
+
+    @Label("Heuristic Cache Hits")
+    public long heuristicCacheHits;
+
+    @Label("Heuristic Cache Misses")
+    public long heuristicCacheMisses;
+
+    @Label("Pellet Planning Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long findPathTime;
+
+    @Label("Tile Search Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long graphSearchTime;
+
+    @Label("Ghost Field Update Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long ghostUpdateTime;
+
+    @Label("Decision Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long decisionTime;
+
+    @Label("Replans")
+    public int replans;
+
+    void fill(final int game, final int turns, final int pelletsRemaining, final DecisionStats stats)
+    {
+        this.game = game;
+        this.turns = turns;
+        this.pelletsRemaining = pelletsRemaining;
+        this.decisions = stats.getDecisions();
+        this.nodesExpanded = stats.getNodesExpanded();
+        this.nodesGenerated = stats.getNodesGenerated();
+        this.openPeak = stats.getOpenPeak();
+        this.distanceCacheHits = stats.getDistanceCacheHits();
+        this.distanceCacheMisses = stats.getDistanceCacheMisses();
+        this.heuristicCacheHits = stats.getHeuristicCacheHits();
+        this.heuristicCacheMisses = stats.getHeuristicCacheMisses();
+        this.findPathTime = stats.getFindPathNanos();
+        this.graphSearchTime = stats.getGraphSearchNanos();
+        this.ghostUpdateTime = stats.getGhostUpdateNanos();
+        this.decisionTime = stats.getDecisionNanos();
+        this.replans = stats.getReplans();
+    }
+}
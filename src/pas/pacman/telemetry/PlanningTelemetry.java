@@ -0,0 +1,127 @@
+package src.pas.pacman.telemetry;
+
+
+// SYSTEM IMPORTS
+
+
+// JAVA PROJECT IMPORTS
+
+
+/**
+ * Collects the planning work of one agent, move by move and game by game.
+ *
+ * The agent brackets every makeMove call with beginDecision/endDecision and reports searches,
+ * cache lookups and timings in between. Each finished decision is committed as a JFR
+ * DecisionEvent (free unless a recording enables it), written to the CSV sink if there is
+ * one, and added to the game totals that endGame emits as a GameSummaryEvent. Work reported
+ * between two decisions, e.g. by the background pellet planner, counts toward the next one.
+ * Methods are synchronized because that planner reports from its own thread. Nothing here
+ * throws: a failing CSV sink disables itself rather than end the move or game it logs.
+ */
+public class PlanningTelemetry
+    extends Object
+{
+
+    private DecisionStats current = new DecisionStats();
+    private DecisionStats last = new DecisionStats();
+    private final DecisionStats game = new DecisionStats();
+    private CsvTelemetrySink sink = null;
+
+    private int gameNumber = 0;
+    private int turn = 0;
+    private boolean inDecision = false;
+    private long decisionStartNanos = 0;
+    private DecisionEvent event = null;
+
+    public final synchronized CsvTelemetrySink getCsvSink() { return this.sink; }
+
+    /** Also write every record to sink; null stops writing. */
+    public synchronized void setCsvSink(final CsvTelemetrySink sink) { this.sink = sink; }
+
+    /** Counts of the last finished decision; read-only, and reused after the next one ends. */
+    public final synchronized DecisionStats getLastDecision() { return this.last; }
+
+    /** Totals of the decisions of the game in progress. */
+    public final synchronized DecisionStats getGameTotals() { return this.game; }
+
+    public final synchronized int getGameNumber() { return this.gameNumber; }
+
+    /**
+     * Starts a decision; returns false (and does nothing) if one is already in progress, so a
+     * makeMove that calls itself is counted once.
+     */
+    public synchronized boolean beginDecision(final int turn)
+    {
+        if (this.inDecision) return false;
+        this.inDecision = true;
+        this.turn = turn;
+        this.decisionStartNanos = System.nanoTime();
+        this.event = new DecisionEvent();
+        this.event.begin();
+        return true;
+    }
+
+    public synchronized void endDecision()
+    {
+        if (!this.inDecision) return;
+        this.inDecision = false;
+        this.current.addDecision(System.nanoTime() - this.decisionStartNanos);
+
+        this.event.end();
+        if (this.event.shouldCommit()) {
+            this.event.fill(this.gameNumber, this.turn, this.current);
+            this.event.commit();
+        }
+        this.event = null;
+        this.game.add(this.current);
+
+        DecisionStats done = this.current;
+        this.current = this.last;
+        this.current.clear();
+        this.last = done;
+        if (this.sink != null) this.sink.writeDecision(this.gameNumber, this.turn, done);
+    }
+
+    /** One finished search: nodes expanded and generated, and the largest size its open list reached. */
+    public synchronized void recordSearch(final long expanded, final long generated, final int openPeak)
+    {
+        this.current.addSearch(expanded, generated, openPeak);
+    }
+
+    public synchronized void recordDistanceCache(final long hits, final long misses)
+    {
+        this.current.addDistanceCache(hits, misses);
+    }
+
+    public synchronized void recordHeuristicCache(final long hits, final long misses)
+    {
+        this.current.addHeuristicCache(hits, misses);
+    }
+
+    public synchronized void recordFindPath(final long nanos) { this.current.addFindPath(nanos); }
+    public synchronized void recordGraphSearch(final long nanos) { this.current.addGraphSearch(nanos); }
+    public synchronized void recordGhostUpdate(final long nanos) { this.current.addGhostUpdate(nanos); }
+    public synchronized void recordReplan() { this.current.addReplan(); }
+
+    /**
+     * Emits the summary of the game that just ended and starts counting the next one. Work
+     * recorded since the last decision is folded into the summary.
+     */
+    public synchronized void endGame(final int turns, final int pelletsRemaining)
+    {
+        this.game.add(this.current);
+        this.current.clear();
+
+        GameSummaryEvent summary = new GameSummaryEvent();
+        if (summary.shouldCommit()) {
+            summary.fill(this.gameNumber, turns, pelletsRemaining, this.game);
+            summary.commit();
+        }
+        if (this.sink != null) {
+            this.sink.writeGame(this.gameNumber, turns, pelletsRemaining, this.game);
+            this.sink.flush();
+        }
+        this.game.clear();
+        this.gameNumber++;
+    }
+}
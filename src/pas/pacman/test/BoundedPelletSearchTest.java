@@ -0,0 +1,87 @@
+package src.pas.pacman.test;
+
+
+// SYSTEM IMPORTS
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+// JAVA PROJECT IMPORTS
+import edu.bu.pas.pacman.game.Game.GameView;
+import edu.bu.pas.pacman.graph.PelletGraph.PelletVertex;
+
+import src.pas.pacman.bench.BenchmarkBoards;
+import src.pas.pacman.graph.MazeDistanceTable;
+import src.pas.pacman.graph.MazeGraph;
+import src.pas.pacman.heuristics.MstHeuristic;
+import src.pas.pacman.search.BoundedPelletSearch;
+import src.pas.pacman.search.PelletIndex;
+import src.pas.pacman.search.SearchBudget;
+
+
+/**
+ * BoundedPelletSearch (IDA*) tour costs against the agent's optimal pellet A*, with a roomy
+ * and a tiny transposition table.
+ */
+public class BoundedPelletSearchTest
+    extends Object
+{
+
+    private static void assertOptimal(final int tableEntries)
+    {
+        for (long seed = 1; seed <= 6; seed++) {
+            GameView view = BenchmarkBoards.generate(24, 36, 7, 0, seed);
+            MazeGraph graph = new MazeGraph(view);
+            MazeDistanceTable distances = new MazeDistanceTable(graph);
+            PelletVertex start = new PelletVertex(view);
+            PelletIndex pellets = new PelletIndex(graph, start.getRemainingPelletCoordinates());
+            int startTile = graph.getTileId(start.getPacmanCoordinate());
+
+            BoundedPelletSearch search = new BoundedPelletSearch(distances, tableEntries);
+            MstHeuristic heuristic = new MstHeuristic(pellets, distances, MstHeuristic.DEFAULT_CACHE_SIZE);
+            assertTrue(search.solve(startTile, pellets, heuristic, SearchBudget.unlimited()));
+            assertEquals("seed " + seed, HeldKarpSolverTest.astarTourCost(view), search.getTourCost(), 1e-3);
+
+            int[] order = search.getOrder();
+            assertEquals(pellets.getNumPellets(), order.length);
+            assertEquals(search.getTourCost(), HeldKarpSolverTest.walkCost(distances, pellets, startTile, order), 1e-3);
+        }
+    }
+
+    @Test
+    public void tourCostMatchesAStar()
+    {
+        assertOptimal(BoundedPelletSearch.DEFAULT_MAX_ENTRIES);
+    }
+
+    @Test
+    public void tinyTableStaysOptimal()
+    {
+        assertOptimal(4);
+    }
+
+    @Test
+    public void stopsWhenBudgetRunsOut()
+    {
+        GameView view = BenchmarkBoards.generate(24, 36, 12, 0, 1L);
+        MazeGraph graph = new MazeGraph(view);
+        MazeDistanceTable distances = new MazeDistanceTable(graph);
+        PelletVertex start = new PelletVertex(view);
+        PelletIndex pellets = new PelletIndex(graph, start.getRemainingPelletCoordinates());
+
+        BoundedPelletSearch search = new BoundedPelletSearch(distances, BoundedPelletSearch.DEFAULT_MAX_ENTRIES);
+        MstHeuristic heuristic = new MstHeuristic(pellets, distances, MstHeuristic.DEFAULT_CACHE_SIZE);
+        SearchBudget budget = new SearchBudget(3, SearchBudget.UNLIMITED);
+        assertFalse(search.solve(graph.getTileId(start.getPacmanCoordinate()), pellets, heuristic, budget));
+        assertEquals(3, budget.getNodesExpanded());
+        assertTrue(budget.isExhausted());
+
+        SearchBudget single = new SearchBudget(1, SearchBudget.UNLIMITED); // exactly maxNodes expansions
+        assertTrue(single.expand());
+        assertFalse(single.expand());
+        assertEquals(1, single.getNodesExpanded());
+    }
+}
@@ -0,0 +1,82 @@
+package src.pas.pacman.test;
+
+
+// SYSTEM IMPORTS
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+// JAVA PROJECT IMPORTS
+import edu.bu.pas.pacman.game.Game.GameView;
+
+import src.pas.pacman.bench.BenchmarkBoards;
+import src.pas.pacman.graph.DistanceTableCache;
+import src.pas.pacman.graph.MazeDistanceTable;
+import src.pas.pacman.graph.MazeGraph;
+
+
+/**
+ * DistanceTableCache stores a table on a miss and maps an identical one on the next lookup,
+ * in a fresh directory per test.
+ */
+public class DistanceTableCacheTest
+    extends Object
+{
+
+    private Path directory;
+
+    @Before
+    public void createDirectory() throws IOException
+    {
+        this.directory = Files.createTempDirectory("distance-cache-test");
+    }
+
+    @After
+    public void deleteDirectory() throws IOException
+    {
+        try (Stream<Path> files = Files.list(this.directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) Files.delete(file);
+        }
+        Files.delete(this.directory);
+    }
+
+    @Test
+    public void missStoresAndHitMapsTheSameTable()
+    {
+        GameView view = BenchmarkBoards.generate(24, 36, 0, 0, 1L);
+        MazeGraph graph = new MazeGraph(view);
+        DistanceTableCache cache = new DistanceTableCache(this.directory);
+
+        MazeDistanceTable built = cache.getOrBuild(graph);
+        assertFalse(built.isMapped());
+        MazeDistanceTable mapped = cache.getOrBuild(new MazeGraph(view));
+        assertTrue(mapped.isMapped());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        for (int a = 0; a < graph.getNumTiles(); a++) {
+            for (int b = 0; b < graph.getNumTiles(); b++) {
+                assertEquals(built.getDistance(a, b), mapped.getDistance(a, b));
+            }
+        }
+    }
+
+    @Test
+    public void otherLayoutMisses()
+    {
+        DistanceTableCache cache = new DistanceTableCache(this.directory);
+        cache.getOrBuild(new MazeGraph(BenchmarkBoards.generate(24, 36, 0, 0, 1L)));
+        assertFalse(cache.getOrBuild(new MazeGraph(BenchmarkBoards.generate(24, 36, 0, 0, 2L))).isMapped());
+        assertEquals(2, cache.getMisses());
+    }
+}
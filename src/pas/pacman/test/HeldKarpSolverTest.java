@@ -0,0 +1,86 @@
+package src.pas.pacman.test;
+
+
+// SYSTEM IMPORTS
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+// JAVA PROJECT IMPORTS
+import edu.bu.pas.pacman.game.Game.GameView;
+import edu.bu.pas.pacman.graph.PelletGraph.PelletVertex;
+
+import src.pas.pacman.agents.PacmanAgent;
+import src.pas.pacman.agents.PacmanAgent.PelletPlanner;
+import src.pas.pacman.bench.BenchmarkBoards;
+import src.pas.pacman.graph.MazeDistanceTable;
+import src.pas.pacman.graph.MazeGraph;
+import src.pas.pacman.search.HeldKarpSolver;
+import src.pas.pacman.search.PelletIndex;
+
+
+/**
+ * HeldKarpSolver tour costs against the agent's optimal pellet A*, and its tour order
+ * against the cost it reports.
+ */
+public class HeldKarpSolverTest
+    extends Object
+{
+
+    // Optimal tour cost from the agent's plain A* planner (Held-Karp switched off)
+    static float astarTourCost(final GameView view)
+    {
+        PacmanAgent agent = BenchmarkBoards.newAgent(view);
+        agent.setPelletPlanner(PelletPlanner.ASTAR);
+        agent.setHeldKarpThreshold(0);
+        return agent.findPathToEatAllPelletsTheFastest(view).getTrueCost();
+    }
+
+    // Length of the walk from startTile through the pellets in order
+    static int walkCost(final MazeDistanceTable distances, final PelletIndex pellets, final int startTile, final int[] order)
+    {
+        int cost = 0;
+        int at = startTile;
+        for (int p : order) {
+            cost += distances.getDistance(at, pellets.getPelletTile(p));
+            at = pellets.getPelletTile(p);
+        }
+        return cost;
+    }
+
+    @Test
+    public void tourCostMatchesAStar()
+    {
+        for (long seed = 1; seed <= 6; seed++) {
+            GameView view = BenchmarkBoards.generate(24, 36, 7, 0, seed);
+            MazeGraph graph = new MazeGraph(view);
+            MazeDistanceTable distances = new MazeDistanceTable(graph);
+            PelletVertex start = new PelletVertex(view);
+            PelletIndex pellets = new PelletIndex(graph, start.getRemainingPelletCoordinates());
+            int startTile = graph.getTileId(start.getPacmanCoordinate());
+
+            HeldKarpSolver solver = new HeldKarpSolver(distances);
+            assertTrue(solver.solve(startTile, pellets));
+            assertEquals("seed " + seed, astarTourCost(view), solver.getTourCost(), 1e-3);
+
+            int[] order = solver.getOrder();
+            assertEquals(pellets.getNumPellets(), order.length);
+            assertEquals(solver.getTourCost(), walkCost(distances, pellets, startTile, order));
+        }
+    }
+
+    @Test
+    public void refusesTooManyPellets()
+    {
+        GameView view = BenchmarkBoards.generate(24, 36, HeldKarpSolver.MAX_PELLETS + 1, 0, 1L);
+        MazeGraph graph = new MazeGraph(view);
+        PelletVertex start = new PelletVertex(view);
+        PelletIndex pellets = new PelletIndex(graph, start.getRemainingPelletCoordinates());
+
+        HeldKarpSolver solver = new HeldKarpSolver(new MazeDistanceTable(graph));
+        assertFalse(solver.solve(graph.getTileId(start.getPacmanCoordinate()), pellets));
+    }
+}
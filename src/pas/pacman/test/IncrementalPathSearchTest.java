@@ -0,0 +1,89 @@
+package src.pas.pacman.test;
+
+
+// SYSTEM IMPORTS
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+// JAVA PROJECT IMPORTS
+import edu.bu.pas.pacman.game.Game.GameView;
+
+import src.pas.pacman.bench.BenchmarkBoards;
+import src.pas.pacman.graph.MazeDistanceTable;
+import src.pas.pacman.graph.MazeGraph;
+import src.pas.pacman.search.GridSearch;
+import src.pas.pacman.search.IncrementalPathSearch;
+
+
+/**
+ * IncrementalPathSearch (D* Lite) repairs against a fresh search of the same risk field, while
+ * Pacman walks and tile risks change between queries.
+ */
+public class IncrementalPathSearchTest
+    extends Object
+{
+
+    private static final float EPSILON = 1e-3f;
+
+    // A random legal step from tile, or tile itself if it has no moves
+    private static int step(final MazeGraph graph, final int tile, final Random random)
+    {
+        int[] moves = new int[4];
+        int n = 0;
+        for (int d = 0; d < 4; d++) {
+            if (graph.getNeighbor(tile, d) != MazeGraph.NO_TILE) moves[n++] = graph.getNeighbor(tile, d);
+        }
+        return n == 0 ? tile : moves[random.nextInt(n)];
+    }
+
+    @Test
+    public void repairMatchesFreshSearch()
+    {
+        int repairs = 0;
+        for (long seed = 1; seed <= 4; seed++) {
+            GameView view = BenchmarkBoards.generate(24, 36, 0, 0, seed);
+            MazeGraph graph = new MazeGraph(view);
+            MazeDistanceTable distances = new MazeDistanceTable(graph);
+            IncrementalPathSearch incremental = new IncrementalPathSearch(graph, distances);
+            GridSearch grid = new GridSearch(graph, distances);
+
+            Random random = new Random(seed);
+            int n = graph.getNumTiles();
+            float[] risk = new float[n];
+            int start = random.nextInt(n);
+            int goal = random.nextInt(n);
+
+            for (int query = 0; query < 300; query++) {
+                if (random.nextInt(25) == 0) goal = random.nextInt(n);
+                for (int k = random.nextInt(4); k > 0; k--) {
+                    int tile = random.nextInt(n);
+                    risk[tile] = random.nextInt(3) == 0 ? 0f : 2f * random.nextFloat();
+                    incremental.riskChanged(tile);
+                }
+                if (random.nextBoolean()) start = step(graph, start, random);
+
+                boolean found = incremental.search(start, goal, risk);
+                if (incremental.wasLastSearchRepair()) repairs++;
+
+                IncrementalPathSearch fresh = new IncrementalPathSearch(graph, distances);
+                assertEquals(fresh.search(start, goal, risk), found);
+                assertEquals(grid.search(start, goal, risk), found);
+                if (!found) continue;
+
+                assertEquals(fresh.getPathCost(), incremental.getPathCost(), EPSILON);
+                assertEquals(grid.getPathCost(), incremental.getPathCost(), EPSILON);
+                assertEquals(start, incremental.getPathTile(0));
+                assertEquals(goal, incremental.getPathTile(incremental.getPathLength() - 1));
+                for (int i = 1; i < incremental.getPathLength(); i++) {
+                    assertEquals(1, distances.getDistance(incremental.getPathTile(i - 1), incremental.getPathTile(i)));
+                }
+            }
+        }
+        assertTrue("no search was a repair", repairs > 0);
+    }
+}
@@ -0,0 +1,89 @@
+package src.pas.pacman.test;
+
+
+// SYSTEM IMPORTS
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+// JAVA PROJECT IMPORTS
+import edu.bu.pas.pacman.game.Game.GameView;
+
+import src.pas.pacman.bench.BenchmarkBoards;
+import src.pas.pacman.graph.JunctionGraph;
+import src.pas.pacman.graph.MazeDistanceTable;
+import src.pas.pacman.graph.MazeGraph;
+import src.pas.pacman.search.GridSearch;
+import src.pas.pacman.search.JunctionSearch;
+
+
+/**
+ * JunctionSearch against GridSearch for every start and goal pair, on boards that have
+ * corridor loops starting and ending at the same vertex.
+ */
+public class JunctionSearchTest
+    extends Object
+{
+
+    private static final float EPSILON = 1e-3f;
+
+    private static int countSelfLoops(final JunctionGraph graph)
+    {
+        int loops = 0;
+        for (int e = 0; e < graph.getNumEdges(); e++) {
+            if (graph.getEdgeA(e) == graph.getEdgeB(e)) loops++;
+        }
+        return loops;
+    }
+
+    private static void assertMatchesGridSearch(final GameView view, final long seed)
+    {
+        MazeGraph maze = new MazeGraph(view);
+        MazeDistanceTable distances = new MazeDistanceTable(maze);
+        JunctionGraph graph = new JunctionGraph(maze);
+        assertTrue("board has no self-loop corridor", countSelfLoops(graph) > 0);
+
+        JunctionSearch junctions = new JunctionSearch(graph, distances);
+        GridSearch grid = new GridSearch(maze, distances);
+        Random random = new Random(seed);
+        float[] risk = new float[maze.getNumTiles()];
+        for (int t = 0; t < risk.length; t++) risk[t] = random.nextInt(4) == 0 ? 3f * random.nextFloat() : 0f;
+
+        for (int start = 0; start < maze.getNumTiles(); start++) {
+            for (int goal = 0; goal < maze.getNumTiles(); goal++) {
+                boolean found = junctions.search(start, goal, risk);
+                assertEquals(grid.search(start, goal, risk), found);
+                if (!found) continue;
+
+                assertEquals(start + " -> " + goal, grid.getPathCost(), junctions.getPathCost(), EPSILON);
+                assertEquals(start, junctions.getPathTile(0));
+                assertEquals(goal, junctions.getPathTile(junctions.getPathLength() - 1));
+                float walked = 0f;
+                for (int i = 1; i < junctions.getPathLength(); i++) {
+                    int tile = junctions.getPathTile(i);
+                    assertEquals(1, distances.getDistance(junctions.getPathTile(i - 1), tile));
+                    walked += 1f + risk[tile];
+                }
+                assertEquals(junctions.getPathCost(), walked, EPSILON);
+            }
+        }
+    }
+
+    @Test
+    public void matchesGridSearchOnSmallBoards()
+    {
+        for (long seed = 2; seed <= 5; seed++) {
+            assertMatchesGridSearch(BenchmarkBoards.generate(12, 18, 0, 0, seed), seed);
+        }
+    }
+
+    @Test
+    public void matchesGridSearchOnLargerBoard()
+    {
+        assertMatchesGridSearch(BenchmarkBoards.generate(24, 36, 0, 0, 3L), 3L);
+    }
+}
@@ -0,0 +1,121 @@
+package src.pas.pacman.test;
+
+
+// SYSTEM IMPORTS
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+// JAVA PROJECT IMPORTS
+import edu.bu.pas.pacman.game.Game;
+import edu.bu.pas.pacman.game.Game.GameView;
+import edu.bu.pas.pacman.utils.Coordinate;
+
+import src.pas.pacman.bench.BenchmarkBoards;
+import src.pas.pacman.graph.MazeDistanceTable;
+import src.pas.pacman.graph.MazeGraph;
+
+
+/**
+ * MazeDistanceTable against a BFS over the GameView itself, in both the dense and the
+ * row-cached layout.
+ *
+ * The Pacman tests are JUnit 4 classes listed in pacman-test.srcs, built on top of the agent:
+ *
+ * javac -d test -cp "lib/*" $(cat pacman.srcs pacman-test.srcs)
+ * java -cp "lib/*:test" org.junit.runner.JUnitCore src.pas.pacman.test.MazeDistanceTableTest
+ */
+public class MazeDistanceTableTest
+    extends Object
+{
+
+    private static final int[] DX = { 0, 0, 1, -1};
+    private static final int[] DY = {-1, 1, 0,  0};
+
+    // Moves from source to every reachable coordinate, using only GameView.isLegalPacmanMove
+    private static Map<Coordinate, Integer> bfs(final GameView view, final Coordinate source)
+    {
+        Map<Coordinate, Integer> dist = new HashMap<>();
+        ArrayDeque<Coordinate> queue = new ArrayDeque<>();
+        dist.put(source, 0);
+        queue.add(source);
+        while (!queue.isEmpty()) {
+            Coordinate c = queue.poll();
+            for (int d = 0; d < 4; d++) {
+                Coordinate next = new Coordinate(c.getXCoordinate() + DX[d], c.getYCoordinate() + DY[d]);
+                if (!view.isLegalPacmanMove(c, MazeGraph.DIRECTIONS[d]) || dist.containsKey(next)) continue;
+                dist.put(next, dist.get(c) + 1);
+                queue.add(next);
+            }
+        }
+        return dist;
+    }
+
+    private static void assertMatchesBfs(final GameView view, final MazeDistanceTable table)
+    {
+        MazeGraph graph = table.getGraph();
+        for (int a = 0; a < graph.getNumTiles(); a++) {
+            Map<Coordinate, Integer> expected = bfs(view, graph.getCoordinate(a));
+            for (int b = 0; b < graph.getNumTiles(); b++) {
+                Integer d = expected.get(graph.getCoordinate(b));
+                assertEquals("distance " + a + " -> " + b,
+                             d == null ? MazeDistanceTable.UNREACHABLE : d.intValue(), table.getDistance(a, b));
+            }
+        }
+    }
+
+    @Test
+    public void denseTableMatchesBfsOnDefaultBoard()
+    {
+        GameView view = new GameView(new Game(new Coordinate(3, 5), new Coordinate(5, 1), 0, 1, 0L));
+        MazeDistanceTable table = new MazeDistanceTable(new MazeGraph(view));
+        assertTrue(table.isDense());
+        assertMatchesBfs(view, table);
+    }
+
+    @Test
+    public void denseTableMatchesBfsOnGeneratedBoards()
+    {
+        for (long seed = 1; seed <= 3; seed++) {
+            GameView view = BenchmarkBoards.generate(24, 36, 0, 0, seed);
+            assertMatchesBfs(view, new MazeDistanceTable(new MazeGraph(view)));
+        }
+    }
+
+    @Test
+    public void rowCachedTableMatchesDenseTable()
+    {
+        GameView view = BenchmarkBoards.generate(48, 72, 0, 0, 7L);
+        MazeGraph graph = new MazeGraph(view);
+        MazeDistanceTable dense = new MazeDistanceTable(graph);
+        MazeDistanceTable rows = new MazeDistanceTable(graph, 0);
+        assertFalse(rows.isDense());
+
+        // twice over, so the second pass reads rows back from the cache
+        for (int pass = 0; pass < 2; pass++) {
+            for (int a = 0; a < graph.getNumTiles(); a++) {
+                for (int b = 0; b < graph.getNumTiles(); b++) {
+                    assertEquals(dense.getDistance(a, b), rows.getDistance(a, b));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void graphMatchesOnlyTheSameLayout()
+    {
+        GameView view = BenchmarkBoards.generate(24, 36, 0, 0, 1L);
+        MazeGraph graph = new MazeGraph(view);
+        assertTrue(graph.matches(view));
+        assertTrue(graph.matches(BenchmarkBoards.generate(24, 36, 5, 2, 1L)));
+        assertFalse(graph.matches(BenchmarkBoards.generate(24, 36, 0, 0, 2L)));  // same size, other walls
+        assertFalse(graph.matches(BenchmarkBoards.generate(24, 42, 0, 0, 1L)));
+    }
+}
@@ -0,0 +1,54 @@
+package src.pas.pacman.test;
+
+
+// SYSTEM IMPORTS
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+// JAVA PROJECT IMPORTS
+import edu.bu.pas.pacman.game.Game.GameView;
+import edu.bu.pas.pacman.graph.PelletGraph.PelletVertex;
+
+import src.pas.pacman.bench.BenchmarkBoards;
+import src.pas.pacman.graph.MazeDistanceTable;
+import src.pas.pacman.graph.MazeGraph;
+import src.pas.pacman.heuristics.MstHeuristic;
+import src.pas.pacman.search.ParallelPelletSearch;
+import src.pas.pacman.search.PelletIndex;
+
+
+/**
+ * ParallelPelletSearch (HDA*) tour costs against the agent's optimal pellet A*, with one and
+ * with several workers.
+ */
+public class ParallelPelletSearchTest
+    extends Object
+{
+
+    @Test
+    public void tourCostMatchesAStar()
+    {
+        for (int workers : new int[]{1, 3}) {
+            for (long seed = 1; seed <= 4; seed++) {
+                GameView view = BenchmarkBoards.generate(24, 36, 7, 0, seed);
+                MazeGraph graph = new MazeGraph(view);
+                MazeDistanceTable distances = new MazeDistanceTable(graph);
+                PelletVertex start = new PelletVertex(view);
+                PelletIndex pellets = new PelletIndex(graph, start.getRemainingPelletCoordinates());
+                int startTile = graph.getTileId(start.getPacmanCoordinate());
+
+                ParallelPelletSearch search = new ParallelPelletSearch(distances, workers);
+                assertTrue(search.solve(startTile, pellets,
+                                        () -> new MstHeuristic(pellets, distances, MstHeuristic.DEFAULT_CACHE_SIZE)));
+                assertEquals(workers + " workers, seed " + seed,
+                             HeldKarpSolverTest.astarTourCost(view), search.getTourCost(), 1e-3);
+                assertEquals(search.getTourCost(),
+                             HeldKarpSolverTest.walkCost(distances, pellets, startTile, search.getOrder()), 1e-3);
+                assertTrue(search.getOpenPeak() > 0);
+            }
+        }
+    }
+}
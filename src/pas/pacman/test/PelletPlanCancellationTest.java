@@ -0,0 +1,73 @@
+package src.pas.pacman.test;
+
+
+// SYSTEM IMPORTS
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+// JAVA PROJECT IMPORTS
+import edu.bu.pas.pacman.game.Game.GameView;
+
+import src.pas.pacman.agents.PacmanAgent;
+import src.pas.pacman.agents.PacmanAgent.PelletPlanner;
+import src.pas.pacman.bench.BenchmarkBoards;
+
+
+/**
+ * afterGameEnds stops a background pellet plan that is still searching, for each of the
+ * unbounded exact planners, and the cancelled plan records no tour cost.
+ */
+public class PelletPlanCancellationTest
+    extends Object
+{
+
+    private static final long PLANNING_HEAD_START_MS = 300L;
+    private static final long STOP_TIMEOUT_MS = 5_000L;
+
+    // Live planner threads: the agent's planner and any HDA* helpers
+    private static List<Thread> plannerThreads()
+    {
+        List<Thread> threads = new ArrayList<>();
+        for (Thread t : Thread.getAllStackTraces().keySet()) {
+            if (t.isAlive() && (t.getName().equals("pacman-pellet-planner") || t.getName().startsWith("pellet-hda-"))) {
+                threads.add(t);
+            }
+        }
+        return threads;
+    }
+
+    @Test
+    public void afterGameEndsStopsRunningPlan() throws InterruptedException
+    {
+        for (PelletPlanner planner : new PelletPlanner[]{PelletPlanner.ASTAR, PelletPlanner.PARALLEL_ASTAR,
+                                                         PelletPlanner.IDASTAR}) {
+            // far too many pellets for an exact tour to finish while the test waits
+            GameView view = BenchmarkBoards.generate(24, 36, 80, 0, 1L);
+            PacmanAgent agent = new PacmanAgent(view.getPacmanId(), view.getPacmanId(), 2);
+            agent.setPelletPlanner(planner);
+            agent.setParallelThreads(2);
+            agent.setHeldKarpThreshold(0);
+
+            agent.makeMove(view); // hands the tour to the planner thread
+            Thread.sleep(PLANNING_HEAD_START_MS);
+            List<Thread> running = plannerThreads();
+            assertFalse(planner + ": no planner thread", running.isEmpty());
+            assertEquals(Float.POSITIVE_INFINITY, agent.getLastTourCost(), 0f);
+
+            agent.afterGameEnds(view);
+            for (Thread t : running) {
+                t.join(STOP_TIMEOUT_MS);
+                assertFalse(planner + ": " + t.getName() + " still running", t.isAlive());
+            }
+            assertTrue(plannerThreads().isEmpty());
+            assertEquals(Float.POSITIVE_INFINITY, agent.getLastTourCost(), 0f);
+        }
+    }
+}